@@ -12,6 +12,19 @@ val quarkusPlatformGroupId: String by project
 val quarkusPlatformArtifactId: String by project
 val quarkusPlatformVersion: String by project
 
+// Synthetic dataset loader for benchmarks, see README
+val generator: SourceSet by sourceSets.creating
+
+// JMH micro-benchmarks of the DTO mapping and JSON serialization, see README
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+
+// End-to-end open-model load test of the packaged application, see README
+val loadtest: SourceSet by sourceSets.creating
+
 dependencies {
     implementation("io.quarkus:quarkus-security-jpa")
     implementation("io.quarkus:quarkus-security")
@@ -21,11 +34,29 @@ dependencies {
     implementation("io.quarkus:quarkus-hibernate-orm-panache")
     implementation("io.quarkiverse.quinoa:quarkus-quinoa:2.5.4")
     implementation("io.quarkus:quarkus-jdbc-postgresql")
+    implementation("io.quarkus:quarkus-reactive-pg-client")
     implementation("io.quarkus:quarkus-arc")
     implementation("io.quarkus:quarkus-hibernate-orm")
+    implementation("io.quarkus:quarkus-micrometer-registry-prometheus")
+    implementation("io.quarkus:quarkus-opentelemetry")
+    implementation("io.quarkus:quarkus-cache")
+    implementation("io.quarkus:quarkus-caffeine")
+    implementation("io.quarkus:quarkus-scheduler")
+    implementation("io.opentelemetry.instrumentation:opentelemetry-jdbc")
     testImplementation("io.quarkus:quarkus-junit5")
     testImplementation("io.rest-assured:rest-assured")
     implementation("io.quarkus:quarkus-oidc-client")
+
+    "generatorImplementation"(enforcedPlatform("${quarkusPlatformGroupId}:${quarkusPlatformArtifactId}:${quarkusPlatformVersion}"))
+    "generatorImplementation"("org.postgresql:postgresql")
+    "generatorImplementation"("io.quarkus:quarkus-elytron-security-common")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+
+    "loadtestImplementation"(enforcedPlatform("${quarkusPlatformGroupId}:${quarkusPlatformArtifactId}:${quarkusPlatformVersion}"))
+    "loadtestImplementation"("com.fasterxml.jackson.core:jackson-databind")
+    "loadtestImplementation"("org.hdrhistogram:HdrHistogram")
 }
 
 group = "art"
@@ -44,6 +75,65 @@ tasks.withType<JavaCompile> {
     options.compilerArgs.add("-parameters")
 }
 
+tasks.register<JavaExec>("generateDataset") {
+    group = "benchmark"
+    description = "Bulk loads a synthetic dataset into PostgreSQL, pass options with -PgeneratorArgs=\"...\""
+    classpath = generator.runtimeClasspath
+    mainClass.set("art.generator.DatasetGenerator")
+    maxHeapSize = "2g"
+    args = providers.gradleProperty("generatorArgs").map { it.split(" ") }.getOrElse(emptyList())
+}
+
+val jmhResults = layout.buildDirectory.file("reports/jmh/results.json")
+// Written by jmhSaveBaseline and read by jmhCompare, the baseline of the current version unless -PjmhBaseline=...
+val jmhBaseline = providers.gradleProperty("jmhBaseline").orElse("src/jmh/baselines/${project.version}.json")
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks with the GC profiler, extra JMH options go in -PjmhArgs=\"...\""
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args = listOf("-prof", "gc", "-rf", "json", "-rff", jmhResults.get().asFile.path) +
+            providers.gradleProperty("jmhArgs").map { it.split(" ") }.getOrElse(emptyList())
+    doFirst { jmhResults.get().asFile.parentFile.mkdirs() }
+}
+
+tasks.register<JavaExec>("jmhCompare") {
+    group = "benchmark"
+    description = "Compares the last JMH results with the baseline, fails on regressions above -PjmhThreshold percent"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("art.benchmarks.BaselineComparison")
+    args = listOf(jmhBaseline.get(), jmhResults.get().asFile.path,
+            providers.gradleProperty("jmhThreshold").getOrElse("10"))
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "benchmark"
+    description = "Boots the packaged application and runs a load scenario, pass options with -PloadtestArgs=\"...\""
+    dependsOn("quarkusBuild")
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("art.loadtest.LoadTest")
+    args = providers.gradleProperty("loadtestArgs").map { it.split(" ") }.getOrElse(emptyList())
+}
+
+tasks.register<JavaExec>("loadTestCompare") {
+    group = "benchmark"
+    description = "Compares two load test reports, -PloadtestBase=<report.json> -PloadtestCandidate=<report.json>"
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("art.loadtest.ReportComparison")
+    args = listOf(providers.gradleProperty("loadtestBase").getOrElse("build/reports/loadtest/blocking/hot-reads/report.json"),
+            providers.gradleProperty("loadtestCandidate").getOrElse("build/reports/loadtest/reactive/hot-reads/report.json"))
+}
+
+tasks.register<Copy>("jmhSaveBaseline") {
+    group = "benchmark"
+    description = "Stores the last JMH results as the baseline of this version, or as -PjmhBaseline"
+    val baseline = file(jmhBaseline.get())
+    from(jmhResults)
+    into(baseline.parentFile)
+    rename { baseline.name }
+}
+
 gradle.buildFinished {
     try {
         val process = ProcessBuilder("cmd", "/c", "netstat -ano | findstr :3000")
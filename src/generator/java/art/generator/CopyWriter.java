@@ -0,0 +1,127 @@
+package art.generator;
+
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes CSV rows straight into a {@code COPY ... FROM STDIN} stream.
+ * Rows are buffered in a small byte array and pushed to the server as it fills up,
+ * so memory stays flat whatever the size of the table.
+ */
+final class CopyWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CopyIn copyIn;
+    private final StringBuilder row = new StringBuilder(256);
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private boolean firstColumn = true;
+    private long rows;
+
+    CopyWriter(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    CopyWriter value(long value) {
+        separator();
+        row.append(value);
+        return this;
+    }
+
+    CopyWriter value(double value) {
+        separator();
+        row.append(value);
+        return this;
+    }
+
+    CopyWriter value(Double value) {
+        separator();
+        if (value != null) {
+            row.append(value.doubleValue());
+        }
+        return this;
+    }
+
+    CopyWriter value(boolean value) {
+        separator();
+        row.append(value ? 't' : 'f');
+        return this;
+    }
+
+    CopyWriter value(LocalDateTime value) {
+        separator();
+        if (value != null) {
+            row.append(value);
+        }
+        return this;
+    }
+
+    CopyWriter value(Long value) {
+        separator();
+        if (value != null) {
+            row.append(value.longValue());
+        }
+        return this;
+    }
+
+    CopyWriter value(String value) {
+        separator();
+        if (value == null) {
+            return this; // Unquoted empty field is NULL in CSV mode
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        row.append('\n');
+        byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+        if (position + bytes.length > buffer.length) {
+            flush();
+            if (bytes.length > buffer.length) {
+                buffer = new byte[bytes.length];
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+        row.setLength(0);
+        firstColumn = true;
+        rows++;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void separator() {
+        if (!firstColumn) {
+            row.append(',');
+        }
+        firstColumn = false;
+    }
+
+    private void flush() throws SQLException {
+        if (position > 0) {
+            copyIn.writeToCopy(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+        copyIn.endCopy();
+    }
+}
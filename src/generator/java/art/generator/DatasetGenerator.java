@@ -0,0 +1,555 @@
+package art.generator;
+
+import io.quarkus.elytron.security.common.BcryptUtil;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates a synthetic Copla dataset and bulk loads it into PostgreSQL with {@code COPY}.
+ * <p>
+ * The schema must already exist (start the application once against the database).
+ * Existing users, tags and commission cards are truncated first, together with every
+ * table referencing them and the home feed inboxes. All generated accounts use the password {@code password}.
+ * <p>
+ * Usage: {@code ./gradlew generateDataset -PgeneratorArgs="--artists=100000 --users=400000 --seed=42"}
+ */
+public class DatasetGenerator {
+
+    private static final String[][] TAGS = {
+            {"Portrait", "style"}, {"Character Design", "style"}, {"Illustration", "style"},
+            {"Fantasy", "genre"}, {"Animation", "medium"}, {"Digital", "medium"}, {"Traditional", "medium"},
+            {"3D", "medium"}, {"Pixel Art", "medium"}, {"NSFW", "content"}, {"SFW", "content"},
+            {"Sci-Fi", "genre"}, {"Horror", "genre"}, {"Romance", "genre"}, {"Abstract", "genre"},
+            {"Watercolor", "medium"}, {"Ink", "medium"}, {"Oil", "medium"}, {"Gouache", "medium"},
+            {"Sketch", "style"}, {"Concept Art", "style"}, {"Chibi", "style"}, {"Anime", "style"},
+            {"Realism", "style"}, {"Comic", "style"}, {"Emote", "medium"}, {"Reference Sheet", "style"},
+            {"Game Art", "genre"}, {"Furry", "genre"}, {"Landscape", "genre"}, {"Mecha", "genre"},
+            {"Cute", "genre"}, {"Dark", "genre"}, {"Logo", "medium"}, {"Sculpture", "medium"},
+            {"VTuber", "medium"}, {"Tattoo", "medium"}, {"Lineart", "style"}, {"Painterly", "style"},
+            {"Cel Shading", "style"},
+    };
+
+    private static final String[] ADJECTIVES = {"Bright", "Cozy", "Detailed", "Dreamy", "Quick", "Moody",
+            "Vivid", "Soft", "Bold", "Tiny", "Epic", "Playful"};
+    private static final String[] SUBJECTS = {"Portrait", "Full Body", "Headshot", "Character Sheet", "Scene",
+            "Sticker Pack", "Emote Set", "Landscape", "Creature", "Couple Piece", "Sketch", "Badge"};
+
+    // Ids are laid out per owner so chunks never coordinate:
+    // element = artist * 8 + n, artwork = artist * 1024 + n, following = follower * 8192 + n,
+    // social profile = account * 2 + n, commission card = artist id.
+
+    // Per-table salts so that two tables never draw the same random stream for one id
+    private static final long ACCOUNT = 0xACC0;
+    private static final long CARD = 0xCA4D;
+    private static final long ARTWORK = 0xA47;
+    private static final long FOLLOW = 0xF011;
+
+    // What the home feed's fan-out job (art.resources.HomeFeed) would have done, for a range of artists
+    private static final String MARK_FANNED_OUT = "UPDATE artworks a SET fanned_out = "
+            + "(SELECT count(*) FROM following f WHERE f.followed_id = a.artist_id) <= ? "
+            + "WHERE a.id BETWEEN ? AND ?";
+    private static final String FILL_INBOXES = "INSERT INTO feed_inbox (user_id, time_created, artwork_id, artist_id) "
+            + "SELECT f.follower_id, a.time_created, a.id, a.artist_id FROM artworks a "
+            + "JOIN following f ON f.followed_id = a.artist_id "
+            + "WHERE a.id BETWEEN ? AND ? AND a.fanned_out AND f.follower_id IS NOT NULL "
+            + "AND a.time_created >= f.followed_at ON CONFLICT DO NOTHING";
+
+    private final Options options;
+    private final String passwordHash;
+    private final Distributions.Zipf artistPopularity;
+    private final Distributions.Zipf tagPopularity;
+    private List<String> images;
+
+    DatasetGenerator(Options options) {
+        this.options = options;
+        this.passwordHash = BcryptUtil.bcryptHash("password");
+        this.artistPopularity = new Distributions.Zipf(options.artists, 1.0);
+        this.tagPopularity = new Distributions.Zipf(TAGS.length, 0.8);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Options options = Options.parse(args);
+        System.out.printf("Generating %d artists, %d users, ~%d follows per account (seed %d, %d threads) into %s%n",
+                options.artists, options.users, options.followsPerAccount, options.seed, options.threads, options.url);
+        new DatasetGenerator(options).run();
+    }
+
+    void run() throws Exception {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        try {
+            truncate();
+            images = PlaceholderImages.write(options.imagesDir, options.placeholderImages, options.seed);
+
+            long accounts = (long) options.artists + options.users;
+            load(executor, "tag", "COPY tag (id, name, description, category, is_active) FROM STDIN WITH (FORMAT csv)",
+                    TAGS.length, this::writeTags);
+            load(executor, "commission_card",
+                    "COPY commission_card (id, title, description) FROM STDIN WITH (FORMAT csv)",
+                    options.artists, this::writeCards);
+            load(executor, "commission_card_element",
+                    "COPY commission_card_element (id, title, description, price, commission_card_id) FROM STDIN WITH (FORMAT csv)",
+                    options.artists, this::writeCardElements);
+            load(executor, "commission_card_element_images",
+                    "COPY commission_card_element_images (element_id, image_url) FROM STDIN WITH (FORMAT csv)",
+                    options.artists, this::writeCardElementImages);
+            load(executor, "users",
+                    "COPY users (id, dtype, name, hashed_password, role, email, time_created, time_updated, profile_pic_path, bio, "
+                            + "verified, is_open_for_commissions, commission_card_id) FROM STDIN WITH (FORMAT csv)",
+                    accounts, this::writeAccounts);
+            load(executor, "social_profiles",
+                    "COPY social_profiles (id, user_id, platform, username, profile_url, is_verified, did, display_name) "
+                            + "FROM STDIN WITH (FORMAT csv)",
+                    accounts, this::writeSocialProfiles);
+            load(executor, "users_tag", "COPY users_tag (artist_id, related_tags_id) FROM STDIN WITH (FORMAT csv)",
+                    options.artists, this::writeArtistTags);
+            load(executor, "artworks",
+                    "COPY artworks (id, title, description, time_created, image_url, price, artist_id) "
+                            + "FROM STDIN WITH (FORMAT csv)",
+                    options.artists, this::writeArtworks);
+            load(executor, "following",
+                    "COPY following (id, follower_id, followed_id, bluesky_handle, bluesky_did, bluesky_display_name, "
+                            + "followed_at, synced_at) FROM STDIN WITH (FORMAT csv)",
+                    accounts, this::writeFollowing);
+            fanOut(executor);
+
+            resetSequences();
+            analyze();
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.printf("Dataset loaded in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    // ---------------------------------------------------------------- rows
+
+    private void writeTags(CopyWriter out, long from, long to) throws SQLException {
+        for (long id = from; id < to; id++) {
+            String[] tag = TAGS[(int) id];
+            out.value(id + 1).value(tag[0]).value(tag[0] + " artwork").value(tag[1]).value(true);
+            out.endRow();
+        }
+    }
+
+    private void writeCards(CopyWriter out, long from, long to) throws SQLException {
+        for (long artistId = from + 1; artistId <= to; artistId++) {
+            ArtistTraits traits = artistTraits(artistId);
+            if (traits.cardElements > 0) {
+                out.value(artistId).value(traits.displayName + " Commissions")
+                        .value("Commission sheet of " + traits.displayName + ".");
+                out.endRow();
+            }
+        }
+    }
+
+    private void writeCardElements(CopyWriter out, long from, long to) throws SQLException {
+        for (long artistId = from + 1; artistId <= to; artistId++) {
+            ArtistTraits traits = artistTraits(artistId);
+            SplittableRandom random = Distributions.random(options.seed, CARD, artistId);
+            for (int j = 0; j < traits.cardElements; j++) {
+                String title = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                        + SUBJECTS[random.nextInt(SUBJECTS.length)];
+                double price = Math.round(Distributions.logNormal(random, 60, 0.8));
+                out.value(artistId * 8 + j).value(title).value(title + " by " + traits.displayName + ".")
+                        .value(Math.max(5, price)).value(artistId);
+                out.endRow();
+            }
+        }
+    }
+
+    private void writeCardElementImages(CopyWriter out, long from, long to) throws SQLException {
+        for (long artistId = from + 1; artistId <= to; artistId++) {
+            ArtistTraits traits = artistTraits(artistId);
+            SplittableRandom random = Distributions.random(options.seed, CARD + 1, artistId);
+            for (int j = 0; j < traits.cardElements; j++) {
+                int count = 1 + random.nextInt(3);
+                for (int k = 0; k < count; k++) {
+                    out.value(artistId * 8 + j).value(images.get(random.nextInt(images.size())));
+                    out.endRow();
+                }
+            }
+        }
+    }
+
+    private void writeAccounts(CopyWriter out, long from, long to) throws SQLException {
+        for (long id = from + 1; id <= to; id++) {
+            SplittableRandom random = Distributions.random(options.seed, ACCOUNT, id);
+            String profilePic = Distributions.chance(random, 0.7) ? images.get(random.nextInt(images.size())) : null;
+            LocalDateTime created = options.now.minusMinutes(random.nextLong(3L * 365 * 24 * 60));
+
+            if (isArtist(id)) {
+                ArtistTraits traits = artistTraits(id);
+                out.value(id).value("Artist").value(traits.name).value(passwordHash).value("artist")
+                        .value(traits.name + "@example.com").value(created).value(created).value(profilePic)
+                        .value(traits.displayName + " draws " + TAGS[traits.tags[0]][0].toLowerCase() + " pieces.")
+                        .value(traits.verified).value(traits.open)
+                        .value(traits.cardElements > 0 ? Long.valueOf(id) : null);
+            } else {
+                String name = accountName(id);
+                out.value(id).value("User").value(name).value(passwordHash).value("user")
+                        .value(name + "@example.com").value(created).value(created).value(profilePic)
+                        .value("Collector and commissioner.")
+                        .value((String) null).value((String) null).value((Long) null);
+            }
+            out.endRow();
+        }
+    }
+
+    private void writeSocialProfiles(CopyWriter out, long from, long to) throws SQLException {
+        for (long id = from + 1; id <= to; id++) {
+            if (!hasBluesky(id)) {
+                continue;
+            }
+            String handle = blueskyHandle(id);
+            boolean verified = !isArtist(id) || artistTraits(id).verified;
+            out.value(id * 2).value(id).value("bluesky").value(handle).value("https://bsky.app/profile/" + handle)
+                    .value(verified).value(blueskyDid(id)).value(accountName(id));
+            out.endRow();
+
+            if (isArtist(id) && id % 3 == 0) {
+                String instagram = accountName(id) + "_art";
+                out.value(id * 2 + 1).value(id).value("instagram").value(instagram)
+                        .value("https://instagram.com/" + instagram).value(false).value((String) null)
+                        .value((String) null);
+                out.endRow();
+            }
+        }
+    }
+
+    private void writeArtistTags(CopyWriter out, long from, long to) throws SQLException {
+        for (long artistId = from + 1; artistId <= to; artistId++) {
+            for (int tag : artistTraits(artistId).tags) {
+                out.value(artistId).value(tag + 1L);
+                out.endRow();
+            }
+        }
+    }
+
+    private void writeArtworks(CopyWriter out, long from, long to) throws SQLException {
+        for (long artistId = from + 1; artistId <= to; artistId++) {
+            SplittableRandom random = Distributions.random(options.seed, ARTWORK, artistId);
+            int count = Distributions.pareto(random, 1.6, 3, 1000) - 2;
+            for (int j = 0; j < count; j++) {
+                String title = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                        + SUBJECTS[random.nextInt(SUBJECTS.length)] + " #" + (j + 1);
+                LocalDateTime created = options.now.minusMinutes(random.nextLong(2L * 365 * 24 * 60));
+                Double price = Distributions.chance(random, 0.2)
+                        ? (double) Math.round(Distributions.logNormal(random, 120, 0.9)) : null;
+                out.value(artistId * 1024 + j).value(title).value((String) null).value(created)
+                        .value(images.get(random.nextInt(images.size()))).value(price)
+                        .value(artistId);
+                out.endRow();
+            }
+        }
+    }
+
+    private void writeFollowing(CopyWriter out, long from, long to) throws SQLException {
+        int mean = options.followsPerAccount;
+        int min = Math.max(1, mean / 4);
+        double alpha = mean > min ? (double) mean / (mean - min) : 3.0;
+        long externalPool = 10L * options.artists;
+        Set<Long> seen = new HashSet<>();
+
+        for (long followerId = from + 1; followerId <= to; followerId++) {
+            if (!hasBluesky(followerId)) {
+                continue;
+            }
+            SplittableRandom random = Distributions.random(options.seed, FOLLOW, followerId);
+            int degree = Distributions.pareto(random, alpha, min, 8000);
+            seen.clear();
+
+            for (int j = 0; j < degree; j++) {
+                LocalDateTime followedAt = options.now.minusMinutes(random.nextLong(2L * 365 * 24 * 60));
+                if (Distributions.chance(random, options.linkedRatio)) {
+                    // Power-law in-degree: low ranks are the popular artists
+                    long artistId = artistPopularity.sample(random) + 1L;
+                    if (artistId == followerId || !seen.add(artistId) || !hasBluesky(artistId)) {
+                        continue;
+                    }
+                    out.value(followerId * 8192 + j).value(followerId).value(artistId)
+                            .value(blueskyHandle(artistId)).value(blueskyDid(artistId))
+                            .value(artistTraits(artistId).displayName).value(followedAt).value(options.now);
+                } else {
+                    long external = random.nextLong(externalPool);
+                    if (!seen.add(-external - 1)) {
+                        continue;
+                    }
+                    out.value(followerId * 8192 + j).value(followerId).value((Long) null)
+                            .value("ext" + external + ".bsky.social").value("did:plc:ext" + external)
+                            .value("External " + external).value(followedAt).value(options.now);
+                }
+                out.endRow();
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- traits
+
+    private record ArtistTraits(String name, String displayName, boolean verified, boolean open,
+            int cardElements, int[] tags) {
+    }
+
+    /**
+     * Attributes shared by several tables, derived from the artist id only.
+     * The draws happen in a fixed order so every table sees the same artist.
+     */
+    private ArtistTraits artistTraits(long artistId) {
+        SplittableRandom random = Distributions.random(options.seed, ACCOUNT + 1, artistId);
+        boolean verified = Distributions.chance(random, 0.5);
+        boolean open = Distributions.chance(random, 0.35);
+        int cardElements = Distributions.chance(random, 0.7) ? Distributions.geometric(random, 0.45, 1, 6) : 0;
+
+        int tagCount = 1 + random.nextInt(5);
+        Set<Integer> tags = new HashSet<>();
+        while (tags.size() < tagCount) {
+            tags.add(tagPopularity.sample(random));
+        }
+
+        String name = accountName(artistId);
+        return new ArtistTraits(name, "Artist " + artistId, verified, open, cardElements,
+                tags.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private boolean isArtist(long id) {
+        return id <= options.artists;
+    }
+
+    private boolean hasBluesky(long id) {
+        return isArtist(id) || id % 10 < 6;
+    }
+
+    private String accountName(long id) {
+        return isArtist(id) ? "artist" + id : "user" + (id - options.artists);
+    }
+
+    private String blueskyHandle(long id) {
+        return accountName(id) + ".bsky.social";
+    }
+
+    private static String blueskyDid(long id) {
+        return "did:plc:copla" + id;
+    }
+
+    // ---------------------------------------------------------------- loading
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(CopyWriter out, long from, long to) throws SQLException;
+    }
+
+    /**
+     * Splits {@code [0, count)} into chunks and streams each one through its own
+     * connection and {@code COPY}, in parallel.
+     */
+    private void load(ExecutorService executor, String table, String copySql, long count, ChunkWriter writer)
+            throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        List<Future<Long>> chunks = new ArrayList<>();
+        for (long from = 0; from < count; from += options.chunkSize) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(count, from + options.chunkSize);
+            chunks.add(executor.submit(() -> copyChunk(copySql, writer, chunkFrom, chunkTo)));
+        }
+
+        long rows = 0;
+        for (Future<Long> chunk : chunks) {
+            rows += chunk.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %-32s %,12d rows in %6.1f s (%,.0f rows/s)%n", table, rows, seconds, rows / seconds);
+    }
+
+    private long copyChunk(String copySql, ChunkWriter writer, long from, long to) throws SQLException {
+        try (Connection connection = connect()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET synchronous_commit = off");
+            }
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+            CopyWriter out = new CopyWriter(copyIn);
+            try {
+                writer.write(out, from, to);
+                out.close();
+            } catch (SQLException | RuntimeException e) {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+                throw e;
+            }
+            return out.rows();
+        }
+    }
+
+    /**
+     * Marks every artwork as handled by the home feed, copying those of the artists with at most
+     * {@code --fan-out-limit} followers to the inboxes of the accounts that followed them before it was published,
+     * the way the application does for new artworks. Set-based, in parallel over ranges of artists.
+     */
+    private void fanOut(ExecutorService executor) throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        List<Future<Long>> chunks = new ArrayList<>();
+        for (long from = 0; from < options.artists; from += options.chunkSize) {
+            // Artwork ids are artist * 1024 + n
+            long firstArtwork = (from + 1) * 1024;
+            long lastArtwork = Math.min(options.artists, from + options.chunkSize) * 1024 + 1023;
+            chunks.add(executor.submit(() -> fanOutChunk(firstArtwork, lastArtwork)));
+        }
+
+        long rows = 0;
+        for (Future<Long> chunk : chunks) {
+            rows += chunk.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %-32s %,12d rows in %6.1f s (%,.0f rows/s)%n", "feed_inbox", rows, seconds, rows / seconds);
+    }
+
+    private long fanOutChunk(long firstArtwork, long lastArtwork) throws SQLException {
+        try (Connection connection = connect()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET synchronous_commit = off");
+            }
+            try (PreparedStatement mark = connection.prepareStatement(MARK_FANNED_OUT);
+                 PreparedStatement inboxes = connection.prepareStatement(FILL_INBOXES)) {
+                mark.setLong(1, options.fanOutLimit);
+                mark.setLong(2, firstArtwork);
+                mark.setLong(3, lastArtwork);
+                mark.executeUpdate();
+                inboxes.setLong(1, firstArtwork);
+                inboxes.setLong(2, lastArtwork);
+                return inboxes.executeUpdate();
+            }
+        }
+    }
+
+    private void truncate() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE users, tag, commission_card, feed_inbox CASCADE");
+        }
+    }
+
+    /**
+     * Moves every entity sequence past the generated ids so the application can keep inserting.
+     */
+    private void resetSequences() throws SQLException {
+        Map<String, String> tables = new HashMap<>();
+        tables.put("users", "user");
+        tables.put("tag", "tag");
+        tables.put("social_profiles", "socialprofile");
+        tables.put("commission_card", "commissioncard");
+        tables.put("commission_card_element", "commissioncardelement");
+        tables.put("artworks", "artwork");
+        tables.put("following", "following");
+
+        try (Connection connection = connect()) {
+            for (Map.Entry<String, String> entry : tables.entrySet()) {
+                String table = entry.getKey();
+                String sequence = findSequence(connection, table + "_seq", entry.getValue() + "_seq");
+                if (sequence == null) {
+                    System.out.printf("  no sequence found for %s, skipped%n", table);
+                    continue;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    // Past the pooled optimizer's block so the next allocated ids never collide
+                    statement.execute("SELECT setval('" + sequence + "', (SELECT coalesce(max(id), 0) + 51 FROM "
+                            + table + "), false)");
+                }
+            }
+        }
+    }
+
+    private static String findSequence(Connection connection, String... candidates) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT sequence_name FROM information_schema.sequences WHERE lower(sequence_name) = ?")) {
+            for (String candidate : candidates) {
+                statement.setString(1, candidate);
+                try (ResultSet result = statement.executeQuery()) {
+                    if (result.next()) {
+                        return result.getString(1);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void analyze() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(options.url, options.user, options.password);
+    }
+
+    // ---------------------------------------------------------------- options
+
+    static final class Options {
+        String url = "jdbc:postgresql://localhost:5432/copla";
+        String user = "admin";
+        String password = "admin";
+        int artists = 100_000;
+        int users = 400_000;
+        int followsPerAccount = 25;
+        double linkedRatio = 0.75;
+        // copla.feed.fan-out-limit of the application
+        long fanOutLimit = 5_000;
+        long seed = 42;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunkSize = 5_000;
+        int placeholderImages = 64;
+        Path imagesDir = Path.of(System.getProperty("user.dir"), "uploads", "images");
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "url" -> options.url = value;
+                    case "user" -> options.user = value;
+                    case "password" -> options.password = value;
+                    case "artists" -> options.artists = Integer.parseInt(value);
+                    case "users" -> options.users = Integer.parseInt(value);
+                    case "follows" -> options.followsPerAccount = Integer.parseInt(value);
+                    case "linked-ratio" -> options.linkedRatio = Double.parseDouble(value);
+                    case "fan-out-limit" -> options.fanOutLimit = Long.parseLong(value);
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "threads" -> options.threads = Integer.parseInt(value);
+                    case "chunk-size" -> options.chunkSize = Integer.parseInt(value);
+                    case "images" -> options.placeholderImages = Integer.parseInt(value);
+                    case "images-dir" -> options.imagesDir = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option --" + name);
+                }
+            }
+            if (options.artists < 1) {
+                throw new IllegalArgumentException("--artists must be positive");
+            }
+            return options;
+        }
+    }
+}
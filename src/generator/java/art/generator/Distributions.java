@@ -0,0 +1,84 @@
+package art.generator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Random distributions used by the generator.
+ * Every entity gets its own generator derived from the global seed, its table and its id,
+ * so the output only depends on the seed and never on the number of threads.
+ */
+final class Distributions {
+
+    private Distributions() {
+    }
+
+    static SplittableRandom random(long seed, long salt, long id) {
+        return new SplittableRandom(mix(mix(seed ^ salt) + id));
+    }
+
+    /**
+     * Pareto distributed integer in {@code [min, max]}, gives the heavy-tailed
+     * out-degree of the follow graph and the artwork counts.
+     */
+    static int pareto(SplittableRandom random, double alpha, int min, int max) {
+        double u = 1.0 - random.nextDouble(); // (0, 1]
+        double value = min / Math.pow(u, 1.0 / alpha);
+        return (int) Math.min(max, Math.floor(value));
+    }
+
+    static double logNormal(SplittableRandom random, double median, double sigma) {
+        return median * Math.exp(sigma * gaussian(random));
+    }
+
+    static int geometric(SplittableRandom random, double p, int min, int max) {
+        int value = min;
+        while (value < max && random.nextDouble() > p) {
+            value++;
+        }
+        return value;
+    }
+
+    static boolean chance(SplittableRandom random, double probability) {
+        return random.nextDouble() < probability;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Samples ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^exponent}.
+     * Used for artist popularity (power-law in-degree) and tag popularity.
+     * Immutable once built, so it is shared by every generation thread.
+     */
+    static final class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int rank = 0; rank < n; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < n; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            int rank = index >= 0 ? index : -index - 1;
+            return Math.min(rank, cumulative.length - 1);
+        }
+    }
+}
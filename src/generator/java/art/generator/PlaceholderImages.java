@@ -0,0 +1,50 @@
+package art.generator;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a fixed set of gradient PNGs into the upload directory, so the generated
+ * profile pictures, artworks and commission examples resolve through {@code /api/images/view}.
+ */
+final class PlaceholderImages {
+
+    private static final int SIZE = 256;
+
+    private PlaceholderImages() {
+    }
+
+    static List<String> write(Path directory, int count, long seed) throws IOException {
+        Files.createDirectories(directory);
+        List<String> urls = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String fileName = "generated_placeholder_" + i + ".png";
+            Path target = directory.resolve(fileName);
+            if (!Files.exists(target)) {
+                SplittableRandom random = Distributions.random(seed, 0x1A6E, i);
+                BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+                Graphics2D graphics = image.createGraphics();
+                graphics.setPaint(new GradientPaint(0, 0, randomColor(random), SIZE, SIZE, randomColor(random)));
+                graphics.fillRect(0, 0, SIZE, SIZE);
+                graphics.dispose();
+                ImageIO.write(image, "png", target.toFile());
+            }
+            urls.add("/api/images/view/" + fileName);
+        }
+        return urls;
+    }
+
+    private static Color randomColor(SplittableRandom random) {
+        return Color.getHSBColor((float) random.nextDouble(), 0.55f, 0.9f);
+    }
+}
@@ -0,0 +1,99 @@
+package art.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file with a stored baseline.
+ * A benchmark regresses when its average time or its normalized allocation rate
+ * grows by more than the threshold, beyond the measurement error.
+ * <p>
+ * Usage: {@code BaselineComparison <baseline.json> <results.json> [thresholdPercent]}.
+ * A missing baseline is an error, exit code 2.
+ */
+public class BaselineComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    record Result(double score, double error, double allocation) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <results.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        if (!baselineFile.exists()) {
+            // Passing without comparing would hide every regression
+            System.err.println("No baseline at " + baselineFile + ", record one with ./gradlew jmh jmhSaveBaseline "
+                    + "on the reference machine or pass -PjmhBaseline=<file>");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100.0 : 0.10;
+
+        Map<String, Result> baseline = read(baselineFile);
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-70s %12s %12s %8s %14s %14s%n", "benchmark", "base", "current", "delta",
+                "base B/op", "current B/op");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %12s %12.3f %8s%n", entry.getKey(), "-", now.score(), "new");
+                continue;
+            }
+
+            double delta = (now.score() - before.score()) / before.score();
+            boolean slower = delta > threshold && now.score() - now.error() > before.score() + before.error();
+            boolean allocates = before.allocation() > 0
+                    && (now.allocation() - before.allocation()) / before.allocation() > threshold;
+            String flag = slower || allocates ? "  REGRESSION" : "";
+            if (slower || allocates) {
+                regressions++;
+            }
+            System.out.printf("%-70s %12.3f %12.3f %+7.1f%% %14.0f %14.0f%s%n", entry.getKey(), before.score(),
+                    now.score(), delta * 100, before.allocation(), now.allocation(), flag);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+
+            JsonNode primary = run.path("primaryMetric");
+            double allocation = 0;
+            Iterator<Map.Entry<String, JsonNode>> secondaries = run.path("secondaryMetrics").fields();
+            while (secondaries.hasNext()) {
+                Map.Entry<String, JsonNode> secondary = secondaries.next();
+                // Older JMH versions prefix profiler metrics with a middle dot
+                if (secondary.getKey().replace("·", "").equals(ALLOCATION)) {
+                    allocation = secondary.getValue().path("score").asDouble();
+                }
+            }
+            double error = primary.path("scoreError").asDouble(0);
+            results.put(key.toString(), new Result(primary.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, allocation));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,77 @@
+package art.benchmarks;
+
+import art.dtos.ArtistDto;
+import art.dtos.CommissionCardDto;
+import art.dtos.FollowingDto;
+import art.dtos.UserDto;
+import art.entities.Artist;
+import art.entities.CommissionCard;
+import art.entities.Following;
+import art.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping as done by the list endpoints of {@code UserResource}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DtoMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    List<Artist> artists;
+    List<User> users;
+    List<Following> followings;
+    List<CommissionCard> cards;
+
+    @Setup
+    public void setup() {
+        EntityGraphs graphs = new EntityGraphs();
+        artists = graphs.artists(size);
+        users = graphs.users(size);
+        followings = graphs.followings(size);
+        cards = artists.stream()
+                .map(artist -> artist.commissionCard)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ArtistDto> artists() {
+        return artists.stream().map(ArtistDto::new).toList();
+    }
+
+    @Benchmark
+    public List<UserDto> users() {
+        return users.stream().map(UserDto::new).toList();
+    }
+
+    @Benchmark
+    public List<FollowingDto> followings() {
+        return followings.stream().map(FollowingDto::new).toList();
+    }
+
+    @Benchmark
+    public List<CommissionCardDto> commissionCards() {
+        return cards.stream().map(CommissionCardDto::new).toList();
+    }
+}
@@ -0,0 +1,156 @@
+package art.benchmarks;
+
+import art.entities.Artist;
+import art.entities.CommissionCard;
+import art.entities.CommissionCardElement;
+import art.entities.Following;
+import art.entities.SocialProfile;
+import art.entities.Tag;
+import art.entities.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds detached entity graphs shaped like the production data: artists with tags,
+ * social profiles and a commission card, users and their followings.
+ * Graphs are derived from a fixed seed so every run benchmarks the same objects.
+ */
+final class EntityGraphs {
+
+    static final long SEED = 42;
+
+    private static final String[] TAG_NAMES = {"Portrait", "Character Design", "Illustration", "Fantasy",
+            "Animation", "Digital", "Traditional", "3D", "Pixel Art", "NSFW", "SFW", "Sci-Fi", "Horror",
+            "Romance", "Abstract"};
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final SplittableRandom random = new SplittableRandom(SEED);
+    private final List<Tag> tags = new ArrayList<>();
+    private long nextId = 1;
+
+    EntityGraphs() {
+        for (String name : TAG_NAMES) {
+            Tag tag = new Tag();
+            tag.id = nextId++;
+            tag.name = name;
+            tag.description = name + " artwork";
+            tag.category = "style";
+            tags.add(tag);
+        }
+    }
+
+    List<Artist> artists(int count) {
+        List<Artist> artists = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            artists.add(artist(i));
+        }
+        return artists;
+    }
+
+    List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            fillUser(user, "user" + i, "user");
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Followings of one account, three quarters linked to a Copla artist like after a Bluesky sync.
+     */
+    List<Following> followings(int count) {
+        User follower = users(1).get(0);
+        List<Following> followings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Following following = new Following();
+            following.id = nextId++;
+            following.follower = follower;
+            following.blueskyHandle = "followed" + i + ".bsky.social";
+            following.blueskyDid = "did:plc:followed" + i;
+            following.blueskyDisplayName = "Followed " + i;
+            following.followedAt = EPOCH.minusDays(random.nextInt(700));
+            following.syncedAt = EPOCH;
+            if (random.nextDouble() < 0.75) {
+                following.followed = artist(i);
+            }
+            followings.add(following);
+        }
+        return followings;
+    }
+
+    private Artist artist(int index) {
+        Artist artist = new Artist();
+        fillUser(artist, "artist" + index, "artist");
+        artist.verified = random.nextBoolean();
+        artist.isOpenForCommissions = random.nextDouble() < 0.35;
+
+        artist.relatedTags = new ArrayList<>();
+        int tagCount = 1 + random.nextInt(5);
+        for (int i = 0; i < tagCount; i++) {
+            Tag tag = tags.get(random.nextInt(tags.size()));
+            if (!artist.relatedTags.contains(tag)) {
+                artist.relatedTags.add(tag);
+            }
+        }
+
+        if (random.nextDouble() < 0.7) {
+            CommissionCard card = new CommissionCard();
+            card.id = nextId++;
+            card.title = "Commissions of " + artist.name;
+            card.description = "Everything " + artist.name + " can draw for you, with turnaround times and terms.";
+            card.artist = artist;
+            card.elements = new ArrayList<>();
+            int elements = 1 + random.nextInt(6);
+            for (int i = 0; i < elements; i++) {
+                CommissionCardElement element = new CommissionCardElement();
+                element.id = nextId++;
+                element.title = "Option " + i;
+                element.description = "A detailed piece with up to " + (i + 1) + " characters.";
+                element.price = 15.0 + random.nextInt(300);
+                element.exampleImageUrls = new ArrayList<>();
+                int imageCount = 1 + random.nextInt(3);
+                for (int j = 0; j < imageCount; j++) {
+                    element.exampleImageUrls.add("/api/images/view/" + artist.name + "_" + i + "_" + j + ".png");
+                }
+                element.commissionCard = card;
+                card.elements.add(element);
+            }
+            artist.commissionCard = card;
+        }
+        return artist;
+    }
+
+    private void fillUser(User user, String name, String role) {
+        user.id = nextId++;
+        user.name = name;
+        user.role = role;
+        user.email = name + "@example.com";
+        user.timeCreated = EPOCH.minusMinutes(random.nextInt(500_000));
+        user.profilePicPath = "/api/images/view/" + name + "_profile.png";
+        user.bio = "Hi, I am " + name + ". I draw characters, landscapes and the occasional dragon.";
+
+        SocialProfile bluesky = new SocialProfile();
+        bluesky.id = nextId++;
+        bluesky.user = user;
+        bluesky.platform = "bluesky";
+        bluesky.username = name + ".bsky.social";
+        bluesky.profileUrl = "https://bsky.app/profile/" + bluesky.username;
+        bluesky.isVerified = true;
+        user.socialProfiles.add(bluesky);
+
+        if (random.nextBoolean()) {
+            SocialProfile instagram = new SocialProfile();
+            instagram.id = nextId++;
+            instagram.user = user;
+            instagram.platform = "instagram";
+            instagram.username = name + "_art";
+            instagram.profileUrl = "https://instagram.com/" + instagram.username;
+            user.socialProfiles.add(instagram);
+        }
+    }
+}
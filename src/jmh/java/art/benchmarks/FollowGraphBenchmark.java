@@ -0,0 +1,86 @@
+package art.benchmarks;
+
+import art.graph.FollowGraphSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries of the in-memory follow graph on a synthetic graph of 50 followings per user, where a few artists
+ * get most of the follows. The setup prints the footprint of the graph per million edges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FollowGraphBenchmark {
+
+    private static final int FOLLOWS_PER_USER = 50;
+
+    @Param({"100000", "1000000"})
+    int edges;
+
+    FollowGraphSnapshot graph;
+    int users;
+    int seed = 1;
+
+    @Setup
+    public void setup() {
+        users = edges / FOLLOWS_PER_USER;
+        int[] followers = new int[edges];
+        int[] followed = new int[edges];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < edges; i++) {
+            followers[i] = 1 + i / FOLLOWS_PER_USER;
+            // Squaring a uniform draw skews the follows towards the low ids
+            double draw = random.nextDouble();
+            followed[i] = 1 + (int) (draw * draw * users);
+        }
+        graph = FollowGraphSnapshot.build(followers, followed, edges);
+        System.out.printf("%n%d users, %d edges, %.1f MB, %.1f MB per million edges%n", graph.nodes(), graph.edges(),
+                graph.bytes() / 1048576.0, graph.bytes() / 1048576.0 * 1_000_000 / graph.edges());
+    }
+
+    /**
+     * A different user at each call, from a linear congruential generator cheaper than the queries measured.
+     */
+    private int nextUser() {
+        seed = seed * 1103515245 + 12345;
+        return 1 + (seed >>> 1) % users;
+    }
+
+    @Benchmark
+    public int[] followees() {
+        return graph.followees(nextUser());
+    }
+
+    @Benchmark
+    public int[] followersOfPopular() {
+        // The most followed accounts have the longest lists
+        return graph.followers(1 + nextUser() % 10);
+    }
+
+    @Benchmark
+    public int[] mutuals() {
+        return graph.mutuals(nextUser());
+    }
+
+    @Benchmark
+    public boolean follows() {
+        int user = nextUser();
+        return graph.follows(user, 1 + user % 10);
+    }
+}
@@ -0,0 +1,84 @@
+package art.benchmarks;
+
+import art.dtos.ArtistDto;
+import art.dtos.FollowingDto;
+import art.dtos.UserDto;
+import art.entities.Artist;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the DTO lists returned by the list endpoints,
+ * with the same mapper settings as the Quarkus default {@code ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    ObjectMapper mapper;
+    List<Artist> artists;
+    List<ArtistDto> artistDtos;
+    List<UserDto> userDtos;
+    List<FollowingDto> followingDtos;
+
+    @Setup
+    public void setup() {
+        mapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        EntityGraphs graphs = new EntityGraphs();
+        artists = graphs.artists(size);
+        artistDtos = artists.stream().map(ArtistDto::new).toList();
+        userDtos = graphs.users(size).stream().map(UserDto::new).toList();
+        followingDtos = graphs.followings(size).stream().map(FollowingDto::new).toList();
+    }
+
+    @Benchmark
+    public byte[] artists() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(artistDtos);
+    }
+
+    @Benchmark
+    public byte[] users() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(userDtos);
+    }
+
+    @Benchmark
+    public byte[] followings() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(followingDtos);
+    }
+
+    /**
+     * Whole {@code GET /users/artists} CPU path once the entities are loaded.
+     */
+    @Benchmark
+    public byte[] mapAndSerializeArtists() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(artists.stream().map(ArtistDto::new).toList());
+    }
+}
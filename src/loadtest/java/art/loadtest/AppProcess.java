@@ -0,0 +1,80 @@
+package art.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the packaged application ({@code build/quarkus-app}) in a child JVM against a local PostgreSQL,
+ * and waits until it answers HTTP requests.
+ */
+final class AppProcess implements AutoCloseable {
+
+    private final Process process;
+
+    private AppProcess(Process process) {
+        this.process = process;
+    }
+
+    static AppProcess start(Path jar, int port, String jdbcUrl, List<String> jvmArgs, Path log)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Dquarkus.http.port=" + port);
+        command.add("-Dquarkus.datasource.jdbc.url=" + jdbcUrl);
+        command.add("-Dquarkus.datasource.reactive.url=" + jdbcUrl.substring("jdbc:".length()));
+        command.add("-Dcopla.seed.enabled=false");
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+
+        Files.createDirectories(log.getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        AppProcess app = new AppProcess(process);
+        try {
+            app.awaitReady(URI.create("http://localhost:" + port), Duration.ofMinutes(2));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            app.close();
+            throw e;
+        }
+        return app;
+    }
+
+    private void awaitReady(URI base, Duration timeout) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest probe = HttpRequest.newBuilder(base.resolve("/api/tags/names")).build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("Application exited with code " + process.exitValue() + ", see its log");
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IOException("Application not ready after " + timeout.toSeconds() + " s");
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, java.util.concurrent.TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package art.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test. Boots the packaged application against a local PostgreSQL loaded by
+ * {@code generateDataset}, drives the workloads of a scenario in open model and writes
+ * {@code report.json} with p50/p99/p99.9 per route.
+ * <p>
+ * Options: {@code --scenario=default} (bundled name or file), {@code --jar=build/quarkus-app/quarkus-run.jar},
+ * {@code --port=8089}, {@code --jdbc-url=jdbc:postgresql://localhost:5432/copla},
+ * {@code --base-url=http://...} (use a running instance instead of booting one),
+ * {@code --app-jvm-args="-Dkey=value ..."} (after the {@code app-jvm-args} of the scenario),
+ * {@code --label=name=value} (recorded in the report),
+ * {@code --report-dir=build/reports/loadtest}.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> labels = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.equals("label")) {
+                labels.put(value.substring(0, value.indexOf('=')), value.substring(value.indexOf('=') + 1));
+            } else {
+                options.put(name, value);
+            }
+        }
+
+        Scenario scenario = Scenario.load(options.getOrDefault("scenario", "default"));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "build/reports/loadtest"), scenario.name);
+        List<String> jvmArgs = new ArrayList<>();
+        String extraArgs = (scenario.property("app-jvm-args", "") + " " + options.getOrDefault("app-jvm-args", "")).trim();
+        if (!extraArgs.isEmpty()) {
+            jvmArgs.addAll(List.of(extraArgs.split("\\s+")));
+        }
+        labels.putIfAbsent("appJvmArgs", String.join(" ", jvmArgs));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                        Thread.ofPlatform().daemon().factory()))
+                .build();
+
+        AppProcess app = null;
+        URI base;
+        if (options.containsKey("base-url")) {
+            base = URI.create(options.get("base-url"));
+        } else {
+            int port = Integer.parseInt(options.getOrDefault("port", "8089"));
+            System.out.println("Starting the application on port " + port);
+            app = AppProcess.start(Path.of(options.getOrDefault("jar", "build/quarkus-app/quarkus-run.jar")), port,
+                    options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/copla"), jvmArgs,
+                    reportDir.resolve("app.log"));
+            base = URI.create("http://localhost:" + port);
+        }
+
+        try {
+            Workloads workloads = new Workloads(base, scenario);
+            workloads.prepare(client);
+
+            System.out.printf("Running scenario %s for %d s after %d s of warmup: %s%n", scenario.name,
+                    scenario.duration.toSeconds(), scenario.warmup.toSeconds(), scenario.rates);
+            var stats = new OpenLoopDriver(client, scenario, workloads).run();
+
+            Report.print(stats);
+            Report.write(reportDir, scenario, labels, stats);
+            System.out.println("Report written to " + reportDir.resolve("report.json"));
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package art.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model driver: each workload sends requests at a constant arrival rate,
+ * whether or not the previous ones completed. One scheduling thread per workload
+ * computes the intended send times, the HTTP client completes the requests asynchronously.
+ */
+final class OpenLoopDriver {
+
+    private final HttpClient client;
+    private final Scenario scenario;
+    private final Workloads workloads;
+    private final Semaphore inFlight;
+    private final Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+
+    OpenLoopDriver(HttpClient client, Scenario scenario, Workloads workloads) {
+        this.client = client;
+        this.scenario = scenario;
+        this.workloads = workloads;
+        this.inFlight = new Semaphore(scenario.maxInFlight);
+    }
+
+    /**
+     * Runs the warmup then the measured period.
+     * @return the stats of the measured period, per route
+     */
+    Map<String, RouteStats> run() throws InterruptedException {
+        long warmupNanos = scenario.warmup.toNanos();
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + scenario.duration.toNanos();
+
+        List<Thread> schedulers = new ArrayList<>();
+        long seed = Long.parseLong(scenario.property("seed", "42"));
+        for (Map.Entry<String, Double> entry : scenario.rates.entrySet()) {
+            Workloads.Workload workload = workloads.create(entry.getKey());
+            RouteStats routeStats = stats.computeIfAbsent(workload.route(), RouteStats::new);
+            SplittableRandom random = new SplittableRandom(seed ^ entry.getKey().hashCode());
+            long intervalNanos = (long) (1_000_000_000L / entry.getValue());
+
+            schedulers.add(Thread.ofPlatform().name("load-" + entry.getKey()).start(() ->
+                    schedule(workload, routeStats, random, start, intervalNanos, measureFrom, end)));
+        }
+        for (Thread scheduler : schedulers) {
+            scheduler.join();
+        }
+
+        // Let the last requests finish before reading the histograms
+        inFlight.acquire(scenario.maxInFlight);
+        inFlight.release(scenario.maxInFlight);
+        return stats;
+    }
+
+    private void schedule(Workloads.Workload workload, RouteStats routeStats, SplittableRandom random,
+            long start, long intervalNanos, long measureFrom, long end) {
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = intended >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    routeStats.drop();
+                }
+                continue;
+            }
+
+            HttpRequest request = workload.next(random);
+            long intendedStart = intended;
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - intendedStart;
+                        inFlight.release();
+                        if (!measured) {
+                            return;
+                        }
+                        if (failure != null || response.statusCode() >= 400) {
+                            routeStats.error(latency);
+                        } else {
+                            routeStats.success(latency, response.body().length);
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package art.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Writes the per-route results as JSON, plus the full HDR percentile distribution of each route.
+ */
+final class Report {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private Report() {
+    }
+
+    static void write(Path directory, Scenario scenario, Map<String, String> labels, Map<String, RouteStats> stats)
+            throws IOException {
+        Files.createDirectories(directory);
+        double seconds = scenario.duration.toMillis() / 1000.0;
+
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("scenario", scenario.name);
+        root.put("finishedAt", Instant.now().toString());
+        root.put("durationSeconds", seconds);
+        root.put("warmupSeconds", scenario.warmup.toMillis() / 1000.0);
+        ObjectNode labelNode = root.putObject("labels");
+        labels.forEach(labelNode::put);
+
+        ArrayNode routes = root.putArray("routes");
+        for (RouteStats route : stats.values()) {
+            Histogram histogram = route.histogram();
+            ObjectNode node = routes.addObject();
+            node.put("route", route.route);
+            node.put("requests", histogram.getTotalCount());
+            node.put("errors", route.errors());
+            node.put("dropped", route.dropped());
+            node.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+            node.put("responseBytes", route.bytes());
+            ObjectNode latency = node.putObject("latencyMillis");
+            latency.put("p50", millis(histogram.getValueAtPercentile(50)));
+            latency.put("p90", millis(histogram.getValueAtPercentile(90)));
+            latency.put("p99", millis(histogram.getValueAtPercentile(99)));
+            latency.put("p99.9", millis(histogram.getValueAtPercentile(99.9)));
+            latency.put("max", millis(histogram.getMaxValue()));
+            latency.put("mean", histogram.getMean() / 1000.0);
+
+            String fileName = route.route.replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        MAPPER.writeValue(directory.resolve("report.json").toFile(), root);
+    }
+
+    static void print(Map<String, RouteStats> stats) {
+        System.out.printf("%-66s %9s %7s %7s %9s %9s %9s%n", "route", "requests", "errors", "dropped",
+                "p50 ms", "p99 ms", "p99.9 ms");
+        for (RouteStats route : stats.values()) {
+            Histogram histogram = route.histogram();
+            System.out.printf("%-66s %9d %7d %7d %9.2f %9.2f %9.2f%n", route.route, histogram.getTotalCount(),
+                    route.errors(), route.dropped(), millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)));
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,67 @@
+package art.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Puts two load test reports of the same scenario side by side, route by route:
+ * throughput, errors and dropped requests, and the p50/p99/p99.9 latencies.
+ * <p>
+ * Usage: {@code ReportComparison <base/report.json> <candidate/report.json>}
+ */
+public class ReportComparison {
+
+    private static final String[] PERCENTILES = {"p50", "p99", "p99.9"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ReportComparison <base/report.json> <candidate/report.json>");
+            System.exit(2);
+        }
+        JsonNode base = new ObjectMapper().readTree(new File(args[0]));
+        JsonNode candidate = new ObjectMapper().readTree(new File(args[1]));
+        if (!base.path("scenario").asText().equals(candidate.path("scenario").asText())) {
+            System.out.printf("Warning: comparing scenario %s with %s%n", base.path("scenario").asText(),
+                    candidate.path("scenario").asText());
+        }
+        System.out.println("base:      " + base.path("labels"));
+        System.out.println("candidate: " + candidate.path("labels"));
+
+        Map<String, JsonNode> baseRoutes = routes(base);
+        System.out.printf("%-50s %-8s %12s %12s %9s%n", "route", "", "base", "candidate", "delta");
+        for (Map.Entry<String, JsonNode> entry : routes(candidate).entrySet()) {
+            JsonNode after = entry.getValue();
+            JsonNode before = baseRoutes.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-50s not in the base report%n", entry.getKey());
+                continue;
+            }
+            row(entry.getKey(), "req/s", before.path("throughputPerSecond").asDouble(),
+                    after.path("throughputPerSecond").asDouble());
+            row("", "errors", before.path("errors").asDouble(), after.path("errors").asDouble());
+            row("", "dropped", before.path("dropped").asDouble(), after.path("dropped").asDouble());
+            for (String percentile : PERCENTILES) {
+                row("", percentile + " ms", before.path("latencyMillis").path(percentile).asDouble(),
+                        after.path("latencyMillis").path(percentile).asDouble());
+            }
+        }
+    }
+
+    private static void row(String route, String metric, double before, double after) {
+        String delta = before > 0 ? String.format("%+8.1f%%", (after - before) / before * 100) : "-";
+        System.out.printf("%-50s %-8s %12.2f %12.2f %9s%n", route, metric, before, after, delta);
+    }
+
+    private static Map<String, JsonNode> routes(JsonNode report) {
+        Map<String, JsonNode> routes = new LinkedHashMap<>();
+        for (JsonNode route : report.path("routes")) {
+            routes.put(route.path("route").asText(), route);
+        }
+        return routes;
+    }
+}
@@ -0,0 +1,60 @@
+package art.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters of one route.
+ * Latencies are recorded in microseconds from the intended send time,
+ * so a stalled server shows up in the tail instead of lowering the request rate.
+ */
+final class RouteStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    final String route;
+    private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    RouteStats(String route) {
+        this.route = route;
+    }
+
+    void success(long latencyNanos, long responseBytes) {
+        histogram.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        bytes.add(responseBytes);
+    }
+
+    void error(long latencyNanos) {
+        histogram.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        errors.increment();
+    }
+
+    /**
+     * The request could not be sent because too many were already in flight.
+     */
+    void drop() {
+        dropped.increment();
+    }
+
+    Histogram histogram() {
+        return histogram;
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    long bytes() {
+        return bytes.sum();
+    }
+}
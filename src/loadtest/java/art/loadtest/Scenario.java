@@ -0,0 +1,86 @@
+package art.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Load profile read from a properties file: run length and the arrival rate of each workload.
+ * Account names match the dataset written by the {@code generateDataset} task.
+ */
+final class Scenario {
+
+    final String name;
+    final Duration duration;
+    final Duration warmup;
+    final int artists;
+    final int users;
+    final int sessions;
+    final int maxInFlight;
+    final Map<String, Double> rates = new LinkedHashMap<>();
+    final Properties properties;
+
+    private Scenario(String name, Properties properties) {
+        this.name = name;
+        this.properties = properties;
+        this.duration = duration(properties.getProperty("duration", "60s"));
+        this.warmup = duration(properties.getProperty("warmup", "10s"));
+        this.artists = Integer.parseInt(properties.getProperty("dataset.artists", "100000"));
+        this.users = Integer.parseInt(properties.getProperty("dataset.users", "400000"));
+        this.sessions = Integer.parseInt(properties.getProperty("sessions", "50"));
+        this.maxInFlight = Integer.parseInt(properties.getProperty("max-in-flight", "10000"));
+
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith("workload.") && key.endsWith(".rate")) {
+                String workload = key.substring("workload.".length(), key.length() - ".rate".length());
+                double rate = Double.parseDouble(properties.getProperty(key));
+                if (rate > 0) {
+                    rates.put(workload, rate);
+                }
+            }
+        }
+    }
+
+    String property(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    /**
+     * Loads a scenario from a file, or from the bundled {@code scenarios/} resources when no such file exists.
+     */
+    static Scenario load(String location) throws IOException {
+        Properties properties = new Properties();
+        Path path = Path.of(location);
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                properties.load(reader);
+            }
+        } else {
+            try (InputStream stream = Scenario.class.getResourceAsStream("/scenarios/" + location + ".properties")) {
+                if (stream == null) {
+                    throw new IOException("No scenario file or bundled scenario named " + location);
+                }
+                properties.load(stream);
+            }
+        }
+        String name = path.getFileName().toString().replace(".properties", "");
+        return new Scenario(name, properties);
+    }
+
+    private static Duration duration(String value) {
+        String trimmed = value.trim();
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        return switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Durations end with s, m or h: " + value);
+        };
+    }
+}
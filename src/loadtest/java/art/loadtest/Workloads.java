@@ -0,0 +1,200 @@
+package art.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The scripted workloads. Each one produces the next request to send;
+ * the route is the templated path the latencies are grouped under.
+ */
+final class Workloads {
+
+    private static final Pattern ELEMENT_ID = Pattern.compile("\"elements\"\\s*:\\s*\\[\\s*\\{\\s*\"id\"\\s*:\\s*(\\d+)");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    interface Workload {
+        String route();
+
+        HttpRequest next(SplittableRandom random);
+    }
+
+    /**
+     * A logged-in account, identified by its form authentication cookie.
+     */
+    record Session(String username, String cookie, long elementId) {
+    }
+
+    private final URI base;
+    private final Scenario scenario;
+    private final List<Session> followers = new ArrayList<>();
+    private final List<Session> cardOwners = new ArrayList<>();
+
+    Workloads(URI base, Scenario scenario) {
+        this.base = base;
+        this.scenario = scenario;
+    }
+
+    /**
+     * Logs in the accounts used by the write workloads, before the clock starts.
+     */
+    void prepare(HttpClient client) throws IOException, InterruptedException {
+        String password = scenario.property("dataset.password", "password");
+        if (scenario.rates.containsKey("sync-following")) {
+            for (int i = 1; followers.size() < scenario.sessions && i <= scenario.users; i++) {
+                followers.add(new Session("user" + i, login(client, "user" + i, password), 0));
+            }
+        }
+        if (scenario.rates.containsKey("edit-commission-card")) {
+            for (int i = 1; cardOwners.size() < scenario.sessions && i <= scenario.artists; i++) {
+                String username = "artist" + i;
+                long elementId = firstElementId(client, username);
+                if (elementId > 0) {
+                    cardOwners.add(new Session(username, login(client, username, password), elementId));
+                }
+            }
+        }
+    }
+
+    Workload create(String name) {
+        return switch (name) {
+            case "browse-artists" -> new Workload() {
+                public String route() {
+                    return "GET /api/users/artists";
+                }
+
+                public HttpRequest next(SplittableRandom random) {
+                    String query = random.nextInt(3) == 0 ? "?openForCommissions=true" : "";
+                    return get("/api/users/artists" + query).build();
+                }
+            };
+            case "view-profile" -> new Workload() {
+                public String route() {
+                    return "GET /api/users/{username}";
+                }
+
+                public HttpRequest next(SplittableRandom random) {
+                    return get("/api/users/artist" + popularArtist(random)).build();
+                }
+            };
+            case "browse-tags" -> new Workload() {
+                private final String[] categories = {"style", "medium", "genre", "content"};
+
+                public String route() {
+                    return "GET /api/tags/all";
+                }
+
+                public HttpRequest next(SplittableRandom random) {
+                    String query = random.nextBoolean() ? "?category=" + categories[random.nextInt(categories.length)] : "";
+                    return get("/api/tags/all" + query).build();
+                }
+            };
+            case "tag-names" -> new Workload() {
+                public String route() {
+                    return "GET /api/tags/names";
+                }
+
+                public HttpRequest next(SplittableRandom random) {
+                    return get("/api/tags/names").build();
+                }
+            };
+            case "view-images" -> new Workload() {
+                private final int images = Integer.parseInt(scenario.property("dataset.images", "64"));
+
+                public String route() {
+                    return "GET /api/images/view/{fileName}";
+                }
+
+                public HttpRequest next(SplittableRandom random) {
+                    return get("/api/images/view/generated_placeholder_" + random.nextInt(images) + ".png").build();
+                }
+            };
+            case "sync-following" -> new Workload() {
+                private final int batch = Integer.parseInt(scenario.property("workload.sync-following.batch", "50"));
+
+                public String route() {
+                    return "POST /api/users/{username}/sync-bluesky-following";
+                }
+
+                public HttpRequest next(SplittableRandom random) {
+                    Session session = followers.get(random.nextInt(followers.size()));
+                    StringBuilder body = new StringBuilder("{\"following\":[");
+                    for (int i = 0; i < batch; i++) {
+                        long artist = popularArtist(random);
+                        if (i > 0) {
+                            body.append(',');
+                        }
+                        body.append("{\"handle\":\"artist").append(artist).append(".bsky.social\",\"did\":\"did:plc:copla")
+                                .append(artist).append("\",\"displayName\":\"Artist ").append(artist).append("\"}");
+                    }
+                    body.append("]}");
+                    return request("/api/users/" + session.username() + "/sync-bluesky-following", session)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                            .build();
+                }
+            };
+            case "edit-commission-card" -> new Workload() {
+                public String route() {
+                    return "PUT /api/users/{username}/commission-card/elements/{elementId}";
+                }
+
+                public HttpRequest next(SplittableRandom random) {
+                    Session session = cardOwners.get(random.nextInt(cardOwners.size()));
+                    String body = "{\"price\":" + (10 + random.nextInt(400)) + ".0}";
+                    return request("/api/users/" + session.username() + "/commission-card/elements/"
+                            + session.elementId(), session)
+                            .header("Content-Type", "application/json")
+                            .PUT(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                }
+            };
+            default -> throw new IllegalArgumentException("Unknown workload " + name);
+        };
+    }
+
+    private long popularArtist(SplittableRandom random) {
+        // Inverse transform of a 1/x distribution: a few artists get most of the traffic
+        return Math.max(1, Math.min(scenario.artists, (long) Math.pow(scenario.artists, random.nextDouble())));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).GET();
+    }
+
+    private HttpRequest.Builder request(String path, Session session) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).header("Cookie", session.cookie());
+    }
+
+    private String login(HttpClient client, String username, String password)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/j_security_check"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("j_username=" + username + "&j_password=" + password))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        return response.headers().allValues("set-cookie").stream()
+                .filter(cookie -> cookie.startsWith("quarkus-credential="))
+                .map(cookie -> cookie.substring(0, cookie.indexOf(';') > 0 ? cookie.indexOf(';') : cookie.length()))
+                .findFirst()
+                .orElseThrow(() -> new IOException("Login failed for " + username + " (" + response.statusCode() + ")"));
+    }
+
+    private long firstElementId(HttpClient client, String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(get("/api/users/" + username + "/commission-card").build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return 0;
+        }
+        Matcher matcher = ELEMENT_ID.matcher(response.body());
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+}
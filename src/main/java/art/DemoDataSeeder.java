@@ -0,0 +1,297 @@
+package art;
+
+import art.entities.Artist;
+import art.entities.CommissionCard;
+import art.entities.CommissionCardElement;
+import art.entities.Following;
+import art.entities.SocialProfile;
+import art.entities.Tag;
+import art.entities.User;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inserts the demo accounts used in dev and test.
+ * Everything is looked up once, built in memory and flushed in a single batch,
+ * so seeding costs a handful of round trips instead of one per entity.
+ */
+@ApplicationScoped
+public class DemoDataSeeder {
+
+    private static final Logger log = Logger.getLogger(DemoDataSeeder.class);
+
+    /**
+     * Seeds the demo data, skipping every account that already exists.
+     * @return the number of accounts that were created
+     */
+    @Transactional
+    public int seed() {
+        long start = System.nanoTime();
+
+        // Initialize default tags
+        Tag.createDefaultTags();
+        Map<String, Tag> tags = Tag.findAllActiveTags().stream()
+                .collect(Collectors.toMap(tag -> tag.name, Function.identity()));
+
+        List<SeedAccount> accounts = demoAccounts();
+        Set<String> existing = new HashSet<>(User.getEntityManager()
+                .createQuery("select u.name from User u where u.name in :names", String.class)
+                .setParameter("names", accounts.stream().map(SeedAccount::name).toList())
+                .getResultList());
+        List<SeedAccount> missing = accounts.stream()
+                .filter(account -> !existing.contains(account.name()))
+                .toList();
+        long lookedUp = System.nanoTime();
+
+        // Bcrypt dominates the seeding time, hash every password in parallel
+        Map<String, String> hashes = missing.parallelStream()
+                .collect(Collectors.toMap(SeedAccount::name, account -> User.hashPassword(account.password())));
+        long hashed = System.nanoTime();
+
+        Map<String, User> created = new LinkedHashMap<>();
+        for (SeedAccount account : missing) {
+            User user = account.toEntity(hashes.get(account.name()), tags);
+            user.persist();
+            created.put(user.name, user);
+        }
+
+        User.flush();
+
+        // Create sample following relationships for alice, also when she was seeded by an earlier run
+        User alice = created.containsKey("alice") ? created.get("alice") : User.findByUsername("alice");
+        if (alice != null) {
+            follow(alice, "copla1", "copla1.bsky.social", "did:copla1", "Copla Artist 1");
+            follow(alice, "copla2", "copla2.bsky.social", "did:copla2", "Copla Artist 2");
+            follow(alice, "sakura_art", "sakura.art", "did:sakura", "Sakura Art Studio");
+            Following.flush();
+        }
+        long flushed = System.nanoTime();
+
+        log.infof("Seeded %d of %d demo accounts in %d ms (lookup %d ms, bcrypt %d ms, insert %d ms)",
+                created.size(), accounts.size(), millis(start, flushed), millis(start, lookedUp),
+                millis(lookedUp, hashed), millis(hashed, flushed));
+        return created.size();
+    }
+
+    private static void follow(User follower, String followedName, String handle, String did, String displayName) {
+        // createOrUpdate is idempotent, it only refreshes the row when the follow already exists
+        if (User.existsName(followedName)) {
+            Following.createOrUpdate(follower, handle, did, displayName);
+        }
+    }
+
+    private static long millis(long from, long to) {
+        return (to - from) / 1_000_000;
+    }
+
+    private static List<SeedAccount> demoAccounts() {
+        List<SeedAccount> accounts = new ArrayList<>();
+
+        // Regular users
+        accounts.add(SeedAccount.user("alice", "alice", "alice@gmail.com",
+                "Art enthusiast and collector. Love supporting independent artists!")
+                .social("bluesky", "alice_bluesky", "https://bsky.app/profile/alice.bsky.social", true, null));
+        accounts.add(SeedAccount.user("bob", "bob", "bob@example.com",
+                "Gaming fan and digital art collector."));
+        accounts.add(SeedAccount.user("charlie", "charlie", "charlie@test.com",
+                "Traditional art lover, especially watercolors and sketches."));
+
+        // Artists
+        accounts.add(SeedAccount.artist("neroil", "neroil", "neroil@hotmail.com", false,
+                "Digital illustrator specializing in fantasy and character design.")
+                .tags("Digital", "Fantasy")
+                .card("Fantasy Character Commissions",
+                        "High-quality digital character illustrations for your fantasy projects.")
+                .element("Portrait", "A detailed portrait of a character.",
+                        "/api/images/view/neroil_portrait_sample.jpg", 100.0)
+                .element("Full Body", "Complete character illustration.",
+                        "/api/images/view/neroil_fullbody_sample.jpg", 200.0)
+                .element("Character Sheet", "Multiple poses and expressions.",
+                        "/api/images/view/neroil_sheet_sample.jpg", 350.0));
+
+        accounts.add(SeedAccount.artist("sakura_art", "sakura123", "sakura@artmail.com", true,
+                "Traditional Japanese-inspired artist. Watercolors and ink specialization.")
+                .social("bluesky", "sakura.art", "https://bsky.app/profile/sakura.art", true, "Sakura Art Studio")
+                .tags("Traditional", "Watercolor")
+                .card("Traditional Watercolor Art",
+                        "Handpainted watercolor pieces with Japanese aesthetic influence.")
+                .element("Small Painting", "A4 size watercolor painting.",
+                        "/api/images/view/sakura_small_sample.jpg", 80.0)
+                .element("Medium Painting", "A3 size detailed watercolor.",
+                        "/api/images/view/sakura_medium_sample.jpg", 150.0)
+                .element("Large Commission", "A2 size masterpiece.",
+                        "/api/images/view/sakura_large_sample.jpg", 300.0));
+
+        accounts.add(SeedAccount.artist("pixel_master", "pixelpass", "pixel@retrogames.com", true,
+                "Retro game-inspired pixel artist. Creating nostalgic 8-bit and 16-bit style artwork.")
+                .tags("Pixel Art", "Game Art")
+                .card("Retro Pixel Art Commissions", "Custom pixel art in classic video game styles.")
+                .element("Character Sprite", "16x16 to 32x32 pixel character.",
+                        "/api/images/view/pixel_sprite_sample.png", 25.0)
+                .element("Background Scene", "Detailed pixel art background.",
+                        "/api/images/view/pixel_background_sample.png", 75.0)
+                .element("Animation Set", "4-8 frame character animation.",
+                        "/api/images/view/pixel_animation_sample.gif", 120.0));
+
+        // Not verified, no commission card yet
+        accounts.add(SeedAccount.artist("abstract_dream", "dreampass", "abstract@modernart.com", false,
+                "Contemporary abstract artist exploring emotions through color and form.")
+                .tags("Abstract", "Contemporary"));
+
+        accounts.add(SeedAccount.artist("sketch_daily", "sketchpass", "daily@sketches.com", true,
+                "Daily sketch artist. Quick studies, character concepts, and gesture drawings.")
+                .social("instagram", "sketch_daily_art", "https://instagram.com/sketch_daily_art", false, null)
+                .social("bluesky", "sketchdaily.bsky.social", "https://bsky.app/profile/sketchdaily.bsky.social",
+                        true, "Daily Sketch Artist")
+                .tags("Sketch", "Concept Art")
+                .card("Quick Sketch Commissions",
+                        "Fast, expressive sketches perfect for concept work and character studies.")
+                .element("Quick Sketch", "15-minute character sketch.",
+                        "/api/images/view/sketch_quick_sample.jpg", 15.0)
+                .element("Detailed Sketch", "1-hour detailed study.",
+                        "/api/images/view/sketch_detailed_sample.jpg", 45.0)
+                .element("Sketch Page", "Multiple poses/expressions.",
+                        "/api/images/view/sketch_page_sample.jpg", 80.0));
+
+        accounts.add(SeedAccount.artist("3d_sculptor", "sculptpass", "sculptor@3dart.com", false,
+                "3D digital sculptor and character modeler. Creating detailed models for games and animation.")
+                .tags("3D", "Sculpture"));
+
+        // Test artists with verified Bluesky accounts for development purposes
+        SeedAccount copla1 = SeedAccount.artist("copla1", "copla1", "copla1@example.com", true,
+                "Test artist with verified Bluesky account for development purposes.")
+                .social("bluesky", "copla1.bsky.social", "https://bsky.app/profile/copla1.bsky.social", true,
+                        "Copla Artist 1")
+                .tags("Digital");
+        copla1.openForCommissions = true;
+        accounts.add(copla1);
+
+        accounts.add(SeedAccount.artist("copla2", "copla2", "copla2@example.com", true,
+                "Another test artist with verified Bluesky account for development purposes.")
+                .social("bluesky", "copla2.bsky.social", "https://bsky.app/profile/copla2.bsky.social", true,
+                        "Copla Artist 2")
+                .tags("Illustration"));
+
+        return accounts;
+    }
+
+    /**
+     * In-memory description of a demo account, turned into entities once the lookups are done.
+     */
+    private static final class SeedAccount {
+        private final String name;
+        private final String password;
+        private final String email;
+        private final String bio;
+        private final boolean artist;
+        private final boolean verified;
+        private boolean openForCommissions;
+        private final List<SocialProfile> socialProfiles = new ArrayList<>();
+        private final List<String> tagNames = new ArrayList<>();
+        private CommissionCard card;
+
+        private SeedAccount(String name, String password, String email, String bio, boolean artist,
+                boolean verified) {
+            this.name = name;
+            this.password = password;
+            this.email = email;
+            this.bio = bio;
+            this.artist = artist;
+            this.verified = verified;
+        }
+
+        static SeedAccount user(String name, String password, String email, String bio) {
+            return new SeedAccount(name, password, email, bio, false, false);
+        }
+
+        static SeedAccount artist(String name, String password, String email, boolean verified, String bio) {
+            return new SeedAccount(name, password, email, bio, true, verified);
+        }
+
+        String name() {
+            return name;
+        }
+
+        String password() {
+            return password;
+        }
+
+        SeedAccount social(String platform, String username, String profileUrl, boolean isVerified,
+                String displayName) {
+            SocialProfile profile = new SocialProfile();
+            profile.platform = platform;
+            profile.username = username;
+            profile.profileUrl = profileUrl;
+            profile.isVerified = isVerified;
+            profile.displayName = displayName;
+            socialProfiles.add(profile);
+            return this;
+        }
+
+        SeedAccount tags(String... names) {
+            tagNames.addAll(List.of(names));
+            return this;
+        }
+
+        SeedAccount card(String title, String description) {
+            card = new CommissionCard();
+            card.title = title;
+            card.description = description;
+            card.elements = new ArrayList<>();
+            return this;
+        }
+
+        SeedAccount element(String title, String description, String imageUrl, Double price) {
+            CommissionCardElement element = new CommissionCardElement();
+            element.title = title;
+            element.description = description;
+            element.exampleImageUrls = List.of(imageUrl);
+            element.price = price;
+            element.commissionCard = card;
+            card.addElement(element);
+            return this;
+        }
+
+        User toEntity(String hashedPassword, Map<String, Tag> tags) {
+            User user;
+            if (artist) {
+                Artist entity = new Artist();
+                entity.role = "artist";
+                entity.verified = verified;
+                entity.isOpenForCommissions = openForCommissions;
+                entity.relatedTags = tagNames.stream()
+                        .map(tags::get)
+                        .filter(tag -> tag != null)
+                        .collect(Collectors.toCollection(ArrayList::new));
+                if (card != null) {
+                    card.artist = entity;
+                    entity.commissionCard = card;
+                }
+                user = entity;
+            } else {
+                user = new User();
+                user.role = "user";
+            }
+
+            user.name = name;
+            user.hashed_password = hashedPassword;
+            user.email = email;
+            user.bio = bio;
+            user.timeCreated = LocalDateTime.now();
+            socialProfiles.forEach(profile -> profile.user = user);
+            user.socialProfiles.addAll(socialProfiles);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package art;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+
+/**
+ * Meter filters applied to every registry.
+ * HTTP server timers publish a histogram so p50/p99 can be computed per route in Prometheus,
+ * and tags that would grow with the data (one series per query string) are dropped.
+ */
+@Singleton
+public class MetricsConfiguration {
+
+    @Produces
+    @Singleton
+    public MeterFilter httpServerHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().startsWith("http.server.requests")) {
+                    return config;
+                }
+                // Bounded range keeps the number of buckets per route small
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    @Produces
+    @Singleton
+    public MeterFilter denyPerQueryMeters() {
+        // Hibernate can tag meters with the HQL of each query, which is unbounded
+        return MeterFilter.deny(id -> id.getName().startsWith("hibernate.query") && id.getTag("query") != null);
+    }
+}
@@ -0,0 +1,27 @@
+package art.concurrency;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the methods of a bean in a named compartment of {@link Bulkheads}, so one class of work
+ * (uploads, image downloads, API calls, Bluesky syncs) can't take the threads of the others.
+ * See {@link Bulkheads} for when that holds on the worker pool.
+ * An annotation on a method takes precedence over the one on its class.
+ */
+@InterceptorBinding
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /**
+     * @return the compartment, configured with {@code copla.bulkhead.<name>.*}
+     */
+    @Nonbinding
+    String value();
+}
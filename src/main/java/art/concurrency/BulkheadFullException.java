@@ -0,0 +1,19 @@
+package art.concurrency;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Map;
+
+/**
+ * A bulkhead turned the request away, answered with a 503 the client can retry.
+ */
+public class BulkheadFullException extends WebApplicationException {
+
+    public BulkheadFullException(String bulkhead) {
+        super(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", 1)
+                .entity(Map.of("message", "Too many " + bulkhead + " requests in progress, try again later"))
+                .build());
+    }
+}
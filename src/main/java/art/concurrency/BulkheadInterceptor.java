@@ -0,0 +1,43 @@
+package art.concurrency;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Runs before {@link DbPermitInterceptor} and the transaction interceptor,
+ * so a rejected request never waits for a connection.
+ */
+@Bulkhead("")
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 50)
+public class BulkheadInterceptor {
+
+    // Calls between intercepted methods of the same request stay in the compartment they entered first
+    private static final ThreadLocal<Bulkheads.Compartment> entered = new ThreadLocal<>();
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @AroundInvoke
+    Object around(InvocationContext context) throws Exception {
+        if (entered.get() != null) {
+            return context.proceed();
+        }
+        Bulkhead binding = context.getMethod().getAnnotation(Bulkhead.class);
+        if (binding == null) {
+            binding = context.getMethod().getDeclaringClass().getAnnotation(Bulkhead.class);
+        }
+        Bulkheads.Compartment compartment = bulkheads.get(binding.value());
+        compartment.enter();
+        entered.set(compartment);
+        try {
+            return context.proceed();
+        } finally {
+            entered.remove();
+            compartment.exit();
+        }
+    }
+}
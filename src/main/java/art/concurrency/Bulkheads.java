@@ -0,0 +1,121 @@
+package art.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The compartments of {@link Bulkhead}, created on first use from {@code copla.bulkhead.<name>.*}:
+ * {@code max-concurrent} requests run at once, up to {@code max-waiting} more wait at most {@code max-wait}
+ * for their turn, and the others are rejected at once with a 503 instead of piling up on the worker pool.
+ * <p>
+ * A compartment is a semaphore on the caller's thread, not an executor of its own: waiting requests park
+ * the thread they arrived on. On virtual threads that costs nothing, on the worker pool the compartments only
+ * keep each other from starving while the sum of their {@code max-concurrent + max-waiting} stays below
+ * {@code quarkus.thread-pool.max-threads}, so keep {@code max-waiting} small. Connections are not budgeted
+ * per compartment, {@link DbPermit} bounds the requests that wait for one.
+ * <p>
+ * Metrics, tagged with the compartment name: {@code copla.bulkhead.running}, {@code copla.bulkhead.waiting},
+ * {@code copla.bulkhead.max-concurrent}, {@code copla.bulkhead.wait} and {@code copla.bulkhead.rejected}
+ * (reason {@code queue-full} or {@code timeout}).
+ */
+@Singleton
+public class Bulkheads {
+
+    private static final int DEFAULT_MAX_CONCURRENT = 16;
+    private static final int DEFAULT_MAX_WAITING = 8;
+    private static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(1);
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    Compartment get(String name) {
+        return compartments.computeIfAbsent(name, this::create);
+    }
+
+    private Compartment create(String name) {
+        Config config = ConfigProvider.getConfig();
+        String prefix = "copla.bulkhead." + name + ".";
+        return new Compartment(name,
+                config.getOptionalValue(prefix + "max-concurrent", Integer.class).orElse(DEFAULT_MAX_CONCURRENT),
+                config.getOptionalValue(prefix + "max-waiting", Integer.class).orElse(DEFAULT_MAX_WAITING),
+                config.getOptionalValue(prefix + "max-wait", Duration.class).orElse(DEFAULT_MAX_WAIT),
+                registry);
+    }
+
+    static final class Compartment {
+
+        private final String name;
+        private final int maxWaiting;
+        private final long maxWaitNanos;
+        private final Semaphore running;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Timer waitTimer;
+        private final Counter queueFull;
+        private final Counter timedOut;
+
+        Compartment(String name, int maxConcurrent, int maxWaiting, Duration maxWait, MeterRegistry registry) {
+            this.name = name;
+            this.maxWaiting = maxWaiting;
+            this.maxWaitNanos = maxWait.toNanos();
+            this.running = new Semaphore(maxConcurrent, true);
+
+            Gauge.builder("copla.bulkhead.running", running, permits -> maxConcurrent - permits.availablePermits())
+                    .tag("bulkhead", name).register(registry);
+            Gauge.builder("copla.bulkhead.waiting", waiting, AtomicInteger::get)
+                    .tag("bulkhead", name).register(registry);
+            Gauge.builder("copla.bulkhead.max-concurrent", () -> maxConcurrent)
+                    .tag("bulkhead", name).register(registry);
+            this.waitTimer = Timer.builder("copla.bulkhead.wait").tag("bulkhead", name).register(registry);
+            this.queueFull = Counter.builder("copla.bulkhead.rejected")
+                    .tag("bulkhead", name).tag("reason", "queue-full").register(registry);
+            this.timedOut = Counter.builder("copla.bulkhead.rejected")
+                    .tag("bulkhead", name).tag("reason", "timeout").register(registry);
+        }
+
+        /**
+         * Takes a slot, waiting for one if the queue has room.
+         * @throws BulkheadFullException if the queue is full or no slot freed up in time
+         */
+        void enter() throws InterruptedException {
+            if (running.tryAcquire()) {
+                return;
+            }
+            if (waiting.incrementAndGet() > maxWaiting) {
+                waiting.decrementAndGet();
+                queueFull.increment();
+                throw new BulkheadFullException(name);
+            }
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = running.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } finally {
+                waiting.decrementAndGet();
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                timedOut.increment();
+                throw new BulkheadFullException(name);
+            }
+        }
+
+        void exit() {
+            running.release();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package art.concurrency;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Makes the methods of a bean take a {@link DbPermits} permit for their whole duration, transaction included,
+ * when they run on a virtual thread. On platform threads the worker pool already bounds the concurrency.
+ */
+@InterceptorBinding
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DbPermit {
+}
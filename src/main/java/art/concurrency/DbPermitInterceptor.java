@@ -0,0 +1,34 @@
+package art.concurrency;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Runs before the transaction interceptor, so the permit is held until the commit.
+ */
+@DbPermit
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class DbPermitInterceptor {
+
+    @Inject
+    DbPermits permits;
+
+    @AroundInvoke
+    Object around(InvocationContext context) throws Exception {
+        if (!Thread.currentThread().isVirtual()) {
+            return context.proceed();
+        }
+        boolean acquired = permits.acquire();
+        try {
+            return context.proceed();
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package art.concurrency;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Map;
+
+/**
+ * No database permit became available in time, answered with a 503 the client can retry.
+ */
+public class DbPermitTimeoutException extends WebApplicationException {
+
+    public DbPermitTimeoutException() {
+        super(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", 1)
+                .entity(Map.of("message", "Too many requests waiting for the database, try again later"))
+                .build());
+    }
+}
@@ -0,0 +1,64 @@
+package art.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One permit per pooled JDBC connection. Requests on virtual threads are not bounded by a thread pool,
+ * so without it thousands of them would queue inside the connection pool and time out there;
+ * they wait here instead, in arrival order, and are turned away after {@code copla.db-permits.timeout}.
+ * <p>
+ * {@link DbPermit} covers the resource methods; work that opens its transaction later, like a streamed response
+ * body written after the method returned, takes its permit with {@link #acquire()} and {@link #release()}.
+ */
+@Singleton
+public class DbPermits {
+
+    private final Semaphore permits;
+    private final Duration timeout;
+    private final Counter rejected;
+    // A method already holding a permit calls another @DbPermit method
+    private final ThreadLocal<Boolean> held = new ThreadLocal<>();
+
+    @Inject
+    public DbPermits(@ConfigProperty(name = "quarkus.datasource.jdbc.max-size", defaultValue = "20") int poolSize,
+            @ConfigProperty(name = "copla.db-permits.timeout", defaultValue = "5s") Duration timeout,
+            MeterRegistry registry) {
+        this.permits = new Semaphore(poolSize, true);
+        this.timeout = timeout;
+        Gauge.builder("copla.db.permits.available", permits, Semaphore::availablePermits).register(registry);
+        Gauge.builder("copla.db.permits.waiting", permits, Semaphore::getQueueLength).register(registry);
+        this.rejected = registry.counter("copla.db.permits.rejected");
+    }
+
+    /**
+     * Waits for a permit, unless the current thread already holds one.
+     * @return true if a permit was taken and must be given back with {@link #release()},
+     *         false if the thread already held one
+     * @throws DbPermitTimeoutException if none was available within the timeout
+     */
+    public boolean acquire() throws InterruptedException {
+        if (held.get() != null) {
+            return false;
+        }
+        if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            rejected.increment();
+            throw new DbPermitTimeoutException();
+        }
+        held.set(Boolean.TRUE);
+        return true;
+    }
+
+    public void release() {
+        held.remove();
+        permits.release();
+    }
+}
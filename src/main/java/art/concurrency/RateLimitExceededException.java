@@ -0,0 +1,19 @@
+package art.concurrency;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Map;
+
+/**
+ * The client went over a rate limit, answered with a 429 telling when to come back.
+ */
+public class RateLimitExceededException extends WebApplicationException {
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super(Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header("Retry-After", retryAfterSeconds)
+                .entity(Map.of("message", "Too many requests, try again in " + retryAfterSeconds + " s"))
+                .build());
+    }
+}
@@ -0,0 +1,60 @@
+package art.concurrency;
+
+import io.quarkus.security.identity.SecurityIdentity;
+import io.vertx.core.http.HttpServerRequest;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charges the request to the bucket of the client address and, when signed in, to the bucket of the principal too,
+ * so neither many accounts behind one address nor one account spread over many addresses escape the limit.
+ * Runs before the bulkheads so a rejected client doesn't take a slot.
+ */
+@RateLimited("")
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 40)
+public class RateLimitInterceptor {
+
+    @Inject
+    RateLimiter rateLimiter;
+
+    @Inject
+    SecurityIdentity identity;
+
+    @Inject
+    HttpServerRequest request;
+
+    @AroundInvoke
+    Object around(InvocationContext context) throws Exception {
+        RateLimited binding = context.getMethod().getAnnotation(RateLimited.class);
+        if (binding == null) {
+            binding = context.getMethod().getDeclaringClass().getAnnotation(RateLimited.class);
+        }
+        // The address first, a request it refuses doesn't use up a token of the account
+        long waitNanos = rateLimiter.acquire(binding.value(), addressKey());
+        if (waitNanos == 0 && !identity.isAnonymous()) {
+            waitNanos = rateLimiter.acquire(binding.value(), "user:" + identity.getPrincipal().getName());
+        }
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(retryAfterSeconds(waitNanos));
+        }
+        return context.proceed();
+    }
+
+    /**
+     * @return the wait rounded up to whole seconds, at least 1, for the Retry-After header
+     */
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    private String addressKey() {
+        // The client address, from X-Forwarded-For behind the proxy (quarkus.http.proxy.*)
+        return "ip:" + (request.remoteAddress() != null ? request.remoteAddress().hostAddress() : "unknown");
+    }
+}
@@ -0,0 +1,25 @@
+package art.concurrency;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits how often each client calls the annotated endpoints, see {@link RateLimiter}.
+ * Over the limit the request is answered with a 429 and a {@code Retry-After} header.
+ */
+@InterceptorBinding
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    /**
+     * @return the limit, configured with {@code copla.rate-limit.<name>.*}
+     */
+    @Nonbinding
+    String value();
+}
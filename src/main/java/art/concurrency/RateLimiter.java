@@ -0,0 +1,196 @@
+package art.concurrency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per limit and client, configured with {@code copla.rate-limit.<name>.rate} requests per
+ * {@code period} and bursts of up to {@code burst} requests.
+ * <p>
+ * A bucket is stored as the single timestamp of the generic cell rate algorithm: the theoretical arrival time
+ * of the next request, pushed one emission interval ({@code period / rate}) forward by each accepted request.
+ * A request is accepted while that time stays within {@code burst} intervals from now. In memory the timestamp is
+ * an {@link AtomicLong} updated with compare-and-set, the buckets of a limit live in a bounded Caffeine cache
+ * (hashed over independent bins, so clients don't contend with each other), and a bucket idle long enough to be
+ * full again expires, which loses nothing. With {@code copla.rate-limit.backend=postgres} the timestamps are kept
+ * in an unlogged table shared by every node and updated with one conditional upsert, using the database clock.
+ */
+@Singleton
+public class RateLimiter {
+
+    private static final Logger log = Logger.getLogger(RateLimiter.class);
+
+    private static final String TABLE = "copla_rate_limit";
+
+    // Accepts and advances the bucket in one statement, no row comes back when the request is over the limit
+    private static final String ACQUIRE = "insert into " + TABLE + " as b (key, tat) values (?, copla_now_us() + ?) "
+            + "on conflict (key) do update set tat = greatest(b.tat, copla_now_us()) + ? "
+            + "where greatest(b.tat, copla_now_us()) + ? - ? <= copla_now_us() returning tat";
+
+    private static final String WAIT = "select greatest(tat, copla_now_us()) + ? - ? - copla_now_us() from " + TABLE
+            + " where key = ?";
+
+    @ConfigProperty(name = "copla.rate-limit.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "copla.rate-limit.backend", defaultValue = "memory")
+    String backend;
+
+    @ConfigProperty(name = "copla.rate-limit.max-keys", defaultValue = "100000")
+    long maxKeys;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    MeterRegistry registry;
+
+    /**
+     * A configured limit: the emission interval and the burst tolerance, in nanoseconds.
+     */
+    record Limit(String name, long intervalNanos, long burstNanos, Cache<String, AtomicLong> buckets) {
+    }
+
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    void init(@Observes StartupEvent event) {
+        if (enabled && postgres()) {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("create unlogged table if not exists " + TABLE
+                        + " (key varchar(255) primary key, tat bigint not null)");
+                statement.execute("create or replace function copla_now_us() returns bigint language sql as "
+                        + "'select (extract(epoch from clock_timestamp()) * 1000000)::bigint'");
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to create the rate limit table", e);
+            }
+        }
+    }
+
+    /**
+     * Takes a token from the bucket of a client.
+     * @param name the limit
+     * @param key the client
+     * @return 0 if the request is accepted, otherwise how many nanoseconds until it would be
+     */
+    long acquire(String name, String key) {
+        if (!enabled) {
+            return 0;
+        }
+        Limit limit = limits.computeIfAbsent(name, this::create);
+        long wait = postgres() ? acquireShared(limit, key) : acquireLocal(limit, key, System.nanoTime());
+        if (wait > 0) {
+            registry.counter("copla.rate-limit.rejected", "limit", name).increment();
+        }
+        return wait;
+    }
+
+    static long acquireLocal(Limit limit, String key, long now) {
+        AtomicLong tat = limit.buckets().get(key, ignored -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + limit.intervalNanos();
+            long wait = next - limit.burstNanos() - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private long acquireShared(Limit limit, String key) {
+        String sharedKey = limit.name() + "|" + key;
+        long interval = TimeUnit.NANOSECONDS.toMicros(limit.intervalNanos());
+        long burst = TimeUnit.NANOSECONDS.toMicros(limit.burstNanos());
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement acquire = connection.prepareStatement(ACQUIRE)) {
+                acquire.setString(1, sharedKey);
+                acquire.setLong(2, interval);
+                acquire.setLong(3, interval);
+                acquire.setLong(4, interval);
+                acquire.setLong(5, burst);
+                try (ResultSet accepted = acquire.executeQuery()) {
+                    if (accepted.next()) {
+                        return 0;
+                    }
+                }
+            }
+            try (PreparedStatement wait = connection.prepareStatement(WAIT)) {
+                wait.setLong(1, interval);
+                wait.setLong(2, burst);
+                wait.setString(3, sharedKey);
+                try (ResultSet result = wait.executeQuery()) {
+                    return result.next() ? TimeUnit.MICROSECONDS.toNanos(Math.max(1, result.getLong(1))) : 0;
+                }
+            }
+        } catch (SQLException e) {
+            // Fail open, a database problem shouldn't turn into refused writes
+            log.warn("Rate limit check failed, letting the request through", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Removes the shared buckets that filled up again, the in-memory ones expire on their own.
+     */
+    @Scheduled(every = "${copla.rate-limit.cleanup-interval:5m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void cleanup() {
+        if (!enabled || !postgres()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            int removed = statement.executeUpdate("delete from " + TABLE + " where tat < copla_now_us()");
+            log.debugf("Removed %d idle rate limit buckets", removed);
+        } catch (SQLException e) {
+            log.warn("Failed to remove the idle rate limit buckets", e);
+        }
+    }
+
+    private boolean postgres() {
+        return "postgres".equals(backend);
+    }
+
+    private Limit create(String name) {
+        Config config = ConfigProvider.getConfig();
+        String prefix = "copla.rate-limit." + name + ".";
+        int rate = config.getOptionalValue(prefix + "rate", Integer.class)
+                .orElseThrow(() -> new IllegalStateException("No " + prefix + "rate configured"));
+        Duration period = config.getOptionalValue(prefix + "period", Duration.class).orElse(Duration.ofMinutes(1));
+        int burst = config.getOptionalValue(prefix + "burst", Integer.class).orElse(rate);
+        return limit(name, rate, period, burst, maxKeys);
+    }
+
+    static Limit limit(String name, int rate, Duration period, int burst, long maxKeys) {
+        long interval = period.toNanos() / rate;
+        long burstNanos = interval * burst;
+        Cache<String, AtomicLong> buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                // By then the bucket is full again, forgetting it changes nothing
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+        return new Limit(name, interval, burstNanos, buckets);
+    }
+}
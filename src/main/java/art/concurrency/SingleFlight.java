@@ -0,0 +1,83 @@
+package art.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical loads: the first caller for a key runs the load, the callers arriving
+ * while it runs wait for its result instead of running their own. A follower waits at most {@code maxWait},
+ * and runs the load itself if the leader is slower than that or failed.
+ * <p>
+ * Metrics are tagged with the name of the flight, a tag per key would grow with the data:
+ * {@code copla.single-flight.loads} (role {@code leader} or {@code follower}), {@code copla.single-flight.wait},
+ * {@code copla.single-flight.fallbacks} and {@code copla.single-flight.in-flight}.
+ */
+public final class SingleFlight<K, V> {
+
+    private final long maxWaitNanos;
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+    private final Timer waits;
+
+    SingleFlight(String name, Duration maxWait, MeterRegistry registry) {
+        this.maxWaitNanos = maxWait.toNanos();
+        this.leaders = Counter.builder("copla.single-flight.loads").tag("flight", name).tag("role", "leader")
+                .register(registry);
+        this.followers = Counter.builder("copla.single-flight.loads").tag("flight", name).tag("role", "follower")
+                .register(registry);
+        this.fallbacks = Counter.builder("copla.single-flight.fallbacks").tag("flight", name).register(registry);
+        this.waits = Timer.builder("copla.single-flight.wait").tag("flight", name).register(registry);
+        Gauge.builder("copla.single-flight.in-flight", calls, Map::size).tag("flight", name).register(registry);
+    }
+
+    /**
+     * Runs the load, or shares the result of the one already running for this key.
+     * A failure of the load is thrown to the leader only, followers then run the load themselves.
+     * @return the loaded value, possibly null
+     */
+    public V execute(K key, Supplier<V> load) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight == null) {
+            leaders.increment();
+            try {
+                V value = load.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                calls.remove(key, call);
+            }
+        }
+
+        followers.increment();
+        long start = System.nanoTime();
+        try {
+            return inFlight.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Too slow or failed, the leader's problem may not be ours
+            fallbacks.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the load of " + key, e);
+        } finally {
+            waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return load.get();
+    }
+}
@@ -0,0 +1,33 @@
+package art.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The named {@link SingleFlight}s of the application, followers wait at most {@code copla.single-flight.max-wait}.
+ */
+@Singleton
+public class SingleFlights {
+
+    @ConfigProperty(name = "copla.single-flight.max-wait", defaultValue = "2s")
+    Duration maxWait;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, SingleFlight<?, ?>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * @return the flight of that name, each name must always be used with the same key and value types
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> SingleFlight<K, V> named(String name) {
+        return (SingleFlight<K, V>) flights.computeIfAbsent(name, ignored -> new SingleFlight<>(name, maxWait, registry));
+    }
+}
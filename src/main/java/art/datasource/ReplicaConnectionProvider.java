@@ -0,0 +1,50 @@
+package art.datasource;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out the connections of one datasource to Hibernate.
+ */
+class ReplicaConnectionProvider implements ConnectionProvider {
+
+    private final DataSource dataSource;
+
+    ReplicaConnectionProvider(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this) || unwrapType.isInstance(dataSource);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) {
+            return unwrapType.cast(this);
+        }
+        if (unwrapType.isInstance(dataSource)) {
+            return unwrapType.cast(dataSource);
+        }
+        throw new IllegalArgumentException("Cannot unwrap " + unwrapType);
+    }
+}
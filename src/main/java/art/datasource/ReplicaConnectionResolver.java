@@ -0,0 +1,31 @@
+package art.datasource;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantConnectionResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+/**
+ * Connections of the default datasource for the primary, of {@code quarkus.datasource."replica"} for the replica.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class ReplicaConnectionResolver implements TenantConnectionResolver {
+
+    @Inject
+    AgroalDataSource primary;
+
+    // Inactive unless copla.replica.enabled, only looked up once a request was routed to it
+    @Inject
+    @DataSource(ReplicaRouting.REPLICA)
+    Instance<AgroalDataSource> replica;
+
+    @Override
+    public ConnectionProvider resolve(String tenantId) {
+        return new ReplicaConnectionProvider(ReplicaRouting.REPLICA.equals(tenantId) ? replica.get() : primary);
+    }
+}
@@ -0,0 +1,92 @@
+package art.datasource;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Measures the replication lag of the replica every {@code copla.replica.lag-check-interval}.
+ * The replica is used only while the last measure is within {@code copla.replica.max-lag};
+ * published as {@code copla.replica.lag} (seconds) and {@code copla.replica.available}.
+ */
+@ApplicationScoped
+public class ReplicaLagMonitor {
+
+    private static final Logger log = Logger.getLogger(ReplicaLagMonitor.class);
+
+    // An idle primary sends no new transactions, a replica that replayed everything it received isn't behind
+    private static final String LAG = "select case when not pg_is_in_recovery() "
+            + "or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+    @ConfigProperty(name = "copla.replica.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "copla.replica.max-lag", defaultValue = "2s")
+    Duration maxLag;
+
+    @Inject
+    @DataSource(ReplicaRouting.REPLICA)
+    Instance<AgroalDataSource> replica;
+
+    @Inject
+    MeterRegistry registry;
+
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean available;
+
+    void init(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("copla.replica.lag", this, monitor -> monitor.lagSeconds).baseUnit("seconds").register(registry);
+        Gauge.builder("copla.replica.available", this, monitor -> monitor.available ? 1 : 0).register(registry);
+        check();
+    }
+
+    /**
+     * @return true if reads can go to the replica
+     */
+    public boolean usable() {
+        return enabled && available;
+    }
+
+    @Scheduled(every = "${copla.replica.lag-check-interval:5s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void check() {
+        if (!enabled) {
+            return;
+        }
+        try (Connection connection = replica.get().getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(LAG)) {
+            result.next();
+            lagSeconds = result.getDouble(1);
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Failed to measure the replica lag, reading from the primary", e);
+            lagSeconds = Double.NaN;
+        }
+
+        boolean wasAvailable = available;
+        available = !Double.isNaN(lagSeconds) && lagSeconds * 1000 <= maxLag.toMillis();
+        if (wasAvailable && !available) {
+            log.warnf("Replica %.1f s behind, reading from the primary", lagSeconds);
+        } else if (!wasAvailable && available) {
+            log.infof("Replica %.1f s behind, reading from it again", lagSeconds);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package art.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends the {@code @GET} endpoints of a resource to the read replica, see {@link ReplicaRoutingFilter}.
+ * The other methods, and every request while the replica lags or right after the caller's own changes,
+ * stay on the primary.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaReads {
+}
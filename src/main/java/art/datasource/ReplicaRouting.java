@@ -0,0 +1,24 @@
+package art.datasource;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * The datasource chosen for the current request, read when Hibernate opens its session.
+ * The two Hibernate "tenants" are the primary and the replica datasource.
+ */
+@RequestScoped
+public class ReplicaRouting {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private boolean replica;
+
+    public boolean replica() {
+        return replica;
+    }
+
+    void useReplica() {
+        this.replica = true;
+    }
+}
@@ -0,0 +1,88 @@
+package art.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+import java.time.Duration;
+
+/**
+ * Chooses the datasource of each request before the resource method opens a session.
+ * {@code @GET} endpoints of {@link ReplicaReads} resources read from the replica, except while it lags
+ * and for {@code copla.replica.read-your-writes} after the caller's last successful change, so users see
+ * their own edits at once. Decisions are counted in {@code copla.replica.routed}.
+ */
+public class ReplicaRoutingFilter {
+
+    @ConfigProperty(name = "copla.replica.enabled", defaultValue = "false")
+    boolean enabled;
+
+    // At least the maximum lag plus the interval between two measures of it
+    @ConfigProperty(name = "copla.replica.read-your-writes", defaultValue = "10s")
+    Duration readYourWrites;
+
+    @Inject
+    ReplicaRouting routing;
+
+    @Inject
+    ReplicaLagMonitor monitor;
+
+    @Inject
+    SecurityIdentity identity;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Cache<String, Boolean> recentWriters;
+
+    @PostConstruct
+    void init() {
+        recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWrites)
+                .build();
+    }
+
+    @ServerRequestFilter
+    public void route(ContainerRequestContext request, ResourceInfo resource) {
+        if (!enabled || !HttpMethod.GET.equals(request.getMethod())
+                || !resource.getResourceClass().isAnnotationPresent(ReplicaReads.class)) {
+            return;
+        }
+        String reason;
+        if (!monitor.usable()) {
+            reason = "lagging";
+        } else if (!identity.isAnonymous() && recentWriters.getIfPresent(identity.getPrincipal().getName()) != null) {
+            reason = "read-your-writes";
+        } else {
+            routing.useReplica();
+            reason = "read";
+        }
+        registry.counter("copla.replica.routed", "datasource",
+                routing.replica() ? ReplicaRouting.REPLICA : ReplicaRouting.PRIMARY, "reason", reason).increment();
+    }
+
+    @ServerResponseFilter
+    public void recordWrite(ContainerRequestContext request, ContainerResponseContext response) {
+        if (!enabled || response.getStatus() >= 400) {
+            return;
+        }
+        String method = request.getMethod();
+        if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+            return;
+        }
+        if (!identity.isAnonymous()) {
+            recentWriters.put(identity.getPrincipal().getName(), Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package art.datasource;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Read/write splitting on top of Hibernate's database multitenancy. Sessions opened outside of a request
+ * (startup, scheduled jobs) and the requests not routed by {@link ReplicaRoutingFilter} use the primary,
+ * which is also where the schema is managed.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class ReplicaTenantResolver implements TenantResolver {
+
+    @Inject
+    ReplicaRouting routing;
+
+    @Override
+    public String getDefaultTenantId() {
+        return ReplicaRouting.PRIMARY;
+    }
+
+    @Override
+    public String resolveTenantId() {
+        if (!Arc.container().requestContext().isActive()) {
+            return ReplicaRouting.PRIMARY;
+        }
+        return routing.replica() ? ReplicaRouting.REPLICA : ReplicaRouting.PRIMARY;
+    }
+}
@@ -0,0 +1,59 @@
+package art.diagnostics;
+
+import art.diagnostics.jfr.DtoMappingEvent;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Maps entities to DTOs inside a span, so the lazy loading done by the DTO constructors shows up
+ * as JDBC spans under "map XxxDto" and is told apart from the queries of the resource method
+ * and from the JSON serialization that follows. A {@link DtoMappingEvent} is recorded for JFR as well.
+ */
+@ApplicationScoped
+public class DtoMapping {
+
+    private static final AttributeKey<Long> COUNT = AttributeKey.longKey("copla.dto.count");
+
+    @Inject
+    Tracer tracer;
+
+    public <E, D> List<D> mapAll(Class<D> dto, List<E> entities, Function<E, D> mapper) {
+        return traced(dto, entities.size(), () -> entities.stream().map(mapper).toList());
+    }
+
+    public <D> D map(Class<D> dto, Supplier<D> mapper) {
+        return traced(dto, 1, mapper);
+    }
+
+    private <D> D traced(Class<?> dto, int count, Supplier<D> mapper) {
+        DtoMappingEvent event = new DtoMappingEvent();
+        event.begin();
+        Span span = tracer.spanBuilder("map " + dto.getSimpleName())
+                .setAttribute(COUNT, (long) count)
+                .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return mapper.get();
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+            event.end();
+            if (event.shouldCommit()) {
+                event.dto = dto.getSimpleName();
+                event.count = count;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package art.diagnostics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the default statement budget of {@code copla.query-budget.*} for an endpoint,
+ * for the ones that legitimately touch many rows such as bulk syncs.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * @return the maximum number of statements, -1 to keep the default
+     */
+    int statements() default -1;
+
+    /**
+     * @return the maximum total database time in milliseconds, -1 to keep the default
+     */
+    long timeMs() default -1;
+}
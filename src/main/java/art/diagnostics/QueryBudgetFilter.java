@@ -0,0 +1,92 @@
+package art.diagnostics;
+
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Accounts the statements executed by each JAX-RS request and the time spent in the database.
+ * Requests over their budget are logged with the most repeated statement, slow statements are logged
+ * with their SQL and bind count, and the totals can be returned in the {@code X-Copla-Query-Count}
+ * and {@code X-Copla-Query-Time-Ms} headers.
+ */
+public class QueryBudgetFilter {
+
+    public static final String COUNT_HEADER = "X-Copla-Query-Count";
+    public static final String TIME_HEADER = "X-Copla-Query-Time-Ms";
+
+    private static final Logger log = Logger.getLogger(QueryBudgetFilter.class);
+
+    @ConfigProperty(name = "copla.query-budget.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "copla.query-budget.headers", defaultValue = "false")
+    boolean headers;
+
+    @ConfigProperty(name = "copla.query-budget.statements", defaultValue = "20")
+    int maxStatements;
+
+    @ConfigProperty(name = "copla.query-budget.time", defaultValue = "200ms")
+    Duration maxTime;
+
+    @ConfigProperty(name = "copla.query-budget.slow-statement", defaultValue = "50ms")
+    Duration slowStatement;
+
+    // Runs on the thread of the resource method, blocking endpoints execute their statements there
+    @ServerRequestFilter
+    public void begin() {
+        if (enabled) {
+            QueryStats.begin(slowStatement.toNanos());
+        }
+    }
+
+    @ServerResponseFilter
+    public void end(ContainerResponseContext response, ResourceInfo resource) {
+        QueryStats stats = QueryStats.end();
+        if (stats == null) {
+            return;
+        }
+
+        long millis = Duration.ofNanos(stats.nanos()).toMillis();
+        if (headers) {
+            response.getHeaders().putSingle(COUNT_HEADER, stats.statements());
+            response.getHeaders().putSingle(TIME_HEADER, millis);
+        }
+
+        String endpoint = resource.getResourceClass() == null ? "unmatched"
+                : resource.getResourceClass().getSimpleName() + "." + resource.getResourceMethod().getName();
+        for (QueryStats.SlowStatement slow : stats.slowStatements()) {
+            log.warnf("Slow statement in %s: %d ms, %d binds: %s", endpoint,
+                    Duration.ofNanos(slow.nanos()).toMillis(), slow.binds(), slow.sql());
+        }
+
+        int statementBudget = maxStatements;
+        long timeBudget = maxTime.toMillis();
+        QueryBudget budget = budget(resource);
+        if (budget != null) {
+            statementBudget = budget.statements() >= 0 ? budget.statements() : statementBudget;
+            timeBudget = budget.timeMs() >= 0 ? budget.timeMs() : timeBudget;
+        }
+
+        if (stats.statements() > statementBudget || millis > timeBudget) {
+            Map.Entry<String, Integer> repeated = stats.mostRepeated();
+            log.warnf("%s over its query budget: %d statements (budget %d), %d ms in the database (budget %d ms)."
+                            + " Most repeated, %d times: %s", endpoint, stats.statements(), statementBudget, millis,
+                    timeBudget, repeated == null ? 0 : repeated.getValue(), repeated == null ? "-" : repeated.getKey());
+        }
+    }
+
+    private static QueryBudget budget(ResourceInfo resource) {
+        if (resource.getResourceMethod() == null) {
+            return null;
+        }
+        QueryBudget budget = resource.getResourceMethod().getAnnotation(QueryBudget.class);
+        return budget != null ? budget : resource.getResourceClass().getAnnotation(QueryBudget.class);
+    }
+}
@@ -0,0 +1,103 @@
+package art.diagnostics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements executed by the current request and the time spent in the database.
+ * Bound to the worker thread running the request by {@link QueryBudgetFilter};
+ * Hibernate sessions opened outside a request (startup, background threads) are not accounted.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    /**
+     * A statement slower than the configured threshold, with its SQL and the number of bind parameters.
+     */
+    public record SlowStatement(String sql, int binds, long nanos) {
+    }
+
+    private final long slowThresholdNanos;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private final List<SlowStatement> slowStatements = new ArrayList<>();
+    private int statements;
+    private long nanos;
+    private String preparedSql;
+    private long startedAt;
+
+    private QueryStats(long slowThresholdNanos) {
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    static QueryStats begin(long slowThresholdNanos) {
+        QueryStats stats = new QueryStats(slowThresholdNanos);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static QueryStats end() {
+        QueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void prepared(String sql) {
+        preparedSql = sql;
+    }
+
+    void executionStarted() {
+        startedAt = System.nanoTime();
+    }
+
+    void executionEnded() {
+        long elapsed = System.nanoTime() - startedAt;
+        statements++;
+        nanos += elapsed;
+        if (preparedSql == null) {
+            return;
+        }
+        executionsBySql.merge(preparedSql, 1, Integer::sum);
+        if (elapsed >= slowThresholdNanos) {
+            slowStatements.add(new SlowStatement(preparedSql, countBinds(preparedSql), elapsed));
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    public List<SlowStatement> slowStatements() {
+        return slowStatements;
+    }
+
+    /**
+     * @return the statement executed the most times in this request, the usual sign of an N+1,
+     *         or null if none was executed
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        return executionsBySql.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+
+    private static int countBinds(String sql) {
+        int binds = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                binds++;
+            }
+        }
+        return binds;
+    }
+}
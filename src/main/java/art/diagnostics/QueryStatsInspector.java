@@ -0,0 +1,21 @@
+package art.diagnostics;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Remembers the SQL of the statement being prepared, so {@link QueryTimingListener}
+ * can attribute the execution time to it.
+ */
+@PersistenceUnitExtension
+public class QueryStatsInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            stats.prepared(sql);
+        }
+        return sql;
+    }
+}
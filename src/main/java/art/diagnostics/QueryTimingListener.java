@@ -0,0 +1,38 @@
+package art.diagnostics;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times every JDBC execution of the Hibernate sessions, registered for all sessions
+ * with {@code hibernate.session.events.auto}. A JDBC batch counts as one statement.
+ */
+@RegisterForReflection
+public class QueryTimingListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            stats.executionStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            stats.executionEnded();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
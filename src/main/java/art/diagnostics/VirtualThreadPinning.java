@@ -0,0 +1,122 @@
+package art.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, typically while blocking inside a
+ * {@code synchronized} block of a JDBC driver or of Hibernate. Streams the {@code jdk.VirtualThreadPinned}
+ * Flight Recorder events in process, records them in the {@code copla.virtual-threads.pinned} timer
+ * tagged with the call site, and logs the stack trace of each new call site once.
+ * Only runs when virtual threads are enabled.
+ */
+@ApplicationScoped
+public class VirtualThreadPinning {
+
+    private static final Logger log = Logger.getLogger(VirtualThreadPinning.class);
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    // Bounds the number of tagged series, the rest is counted under "other"
+    private static final int MAX_SITES = 100;
+
+    @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "true")
+    boolean virtualThreads;
+
+    @ConfigProperty(name = "copla.virtual-threads.pinning.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "copla.virtual-threads.pinning.threshold", defaultValue = "20ms")
+    Duration threshold;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Set<String> sites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    void start(@Observes StartupEvent event) {
+        if (!virtualThreads || !enabled) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(EVENT, this::pinned);
+            stream.startAsync();
+            log.infof("Reporting virtual threads pinned for more than %d ms", threshold.toMillis());
+        } catch (RuntimeException e) {
+            // Native executables built without JFR support
+            log.warn("Flight Recorder unavailable, pinned virtual threads won't be reported", e);
+            stream = null;
+        }
+    }
+
+    void stop(@Observes ShutdownEvent event) {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void pinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String site = site(stackTrace);
+        boolean first = false;
+        if (!sites.contains(site)) {
+            if (sites.size() < MAX_SITES) {
+                first = sites.add(site);
+            } else {
+                site = "other";
+            }
+        }
+        Timer.builder("copla.virtual-threads.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .tag("site", site)
+                .register(registry)
+                .record(event.getDuration());
+
+        if (first) {
+            log.warnf("Virtual thread pinned for %d ms at %s:%n%s", event.getDuration().toMillis(), site,
+                    stackTrace == null ? "(no stack trace)" : stackTrace.getFrames().stream()
+                            .map(frame -> "\tat " + frame.getMethod().getType().getName() + "."
+                                    + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                            .collect(Collectors.joining("\n")));
+        }
+    }
+
+    /**
+     * The innermost application frame, or the innermost library frame when the application is not on the stack.
+     */
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        String library = null;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            String method = type.substring(type.lastIndexOf('.') + 1) + "." + frame.getMethod().getName();
+            if (type.startsWith("art.")) {
+                return method;
+            }
+            if (library == null && !type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                library = method;
+            }
+        }
+        return library != null ? library : "unknown";
+    }
+}
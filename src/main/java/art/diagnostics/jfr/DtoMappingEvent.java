@@ -0,0 +1,22 @@
+package art.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("copla.DtoMapping")
+@Label("DTO Mapping")
+@Category({"Copla", "REST"})
+@Description("Entities mapped to DTOs by a resource method, including the lazy loading done by the DTO constructors")
+@StackTrace(false)
+public class DtoMappingEvent extends Event {
+
+    @Label("DTO")
+    public String dto;
+
+    @Label("Count")
+    public int count;
+}
@@ -0,0 +1,26 @@
+package art.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("copla.FollowingSync")
+@Label("Following Sync")
+@Category({"Copla", "Following"})
+@Description("A batch of Bluesky followings synced for a user")
+@StackTrace(false)
+public class FollowingSyncEvent extends Event {
+
+    @Label("Username")
+    public String username;
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Linked")
+    @Description("Followed accounts that belong to a Copla user")
+    public int linked;
+}
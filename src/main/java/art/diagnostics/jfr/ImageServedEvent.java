@@ -0,0 +1,30 @@
+package art.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("copla.ImageServed")
+@Label("Image Served")
+@Category({"Copla", "Images"})
+@Description("An image returned by GET /api/images/view, a 304 when the copy cached by the client is still valid, or a 404 for a missing file")
+@StackTrace(false)
+public class ImageServedEvent extends Event {
+
+    @Label("File Name")
+    public String fileName;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Cache Hit")
+    public boolean cacheHit;
+
+    @Label("Found")
+    public boolean found;
+}
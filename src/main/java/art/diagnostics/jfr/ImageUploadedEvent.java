@@ -0,0 +1,31 @@
+package art.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("copla.ImageUploaded")
+@Label("Image Uploaded")
+@Category({"Copla", "Images"})
+@Description("An uploaded image written to the upload directory")
+@StackTrace(false)
+public class ImageUploadedEvent extends Event {
+
+    @Label("File Name")
+    public String fileName;
+
+    @Label("Kind")
+    @Description("profilepic or userpic")
+    public String kind;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Success")
+    public boolean success;
+}
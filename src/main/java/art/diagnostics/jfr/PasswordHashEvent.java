@@ -0,0 +1,20 @@
+package art.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("copla.PasswordHash")
+@Label("Password Hash")
+@Category({"Copla", "Security"})
+@Description("A password hashed with bcrypt for a new account")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    @Label("Iterations")
+    @Description("Bcrypt cost factor")
+    public int iterations;
+}
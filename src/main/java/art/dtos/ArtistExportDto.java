@@ -0,0 +1,39 @@
+package art.dtos;
+
+import art.entities.Artist;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the artist directory export: the public listing of an artist, without the full commission card.
+ */
+@RegisterForReflection
+public class ArtistExportDto {
+    public Long id;
+    public String name;
+    public String profilePicPath;
+    public String bio;
+    public boolean verified;
+    public boolean isOpenForCommissions;
+    public double lowestPrice;
+    public String[] tags;
+    public LocalDateTime timeUpdated;
+
+    public ArtistExportDto() {
+    }
+
+    public ArtistExportDto(Artist artist) {
+        this.id = artist.id;
+        this.name = artist.name;
+        this.profilePicPath = artist.profilePicPath;
+        this.bio = artist.bio;
+        this.verified = artist.verified;
+        this.isOpenForCommissions = artist.isOpenForCommissions;
+        this.lowestPrice = artist.getLowestPrice();
+        this.tags = artist.relatedTags != null
+                ? artist.relatedTags.stream().map(tag -> tag.name).toArray(String[]::new)
+                : new String[0];
+        this.timeUpdated = artist.timeUpdated != null ? artist.timeUpdated : artist.timeCreated;
+    }
+}
@@ -0,0 +1,20 @@
+package art.dtos;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.time.LocalDateTime;
+
+@RegisterForReflection
+public class ArtworkDto {
+    public Long id;
+    public String title;
+    public String description;
+    public LocalDateTime timeCreated;
+    public String imageUrl;
+    public Double price;
+    public String artistName;
+    public String artistProfilePicPath;
+
+    public ArtworkDto() {
+    }
+}
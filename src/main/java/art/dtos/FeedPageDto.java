@@ -0,0 +1,20 @@
+package art.dtos;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.List;
+
+@RegisterForReflection
+public class FeedPageDto {
+    public List<ArtworkDto> items;
+    // Cursor of the next page, null on the last one
+    public String next;
+
+    public FeedPageDto() {
+    }
+
+    public FeedPageDto(List<ArtworkDto> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+}
@@ -1,6 +1,7 @@
 package art.entities;
 
-import io.quarkus.elytron.security.common.BcryptUtil;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Sort;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ManyToMany;
@@ -29,7 +30,7 @@ public class Artist extends User {
     public static void add(String username, String password, String email, boolean verified) {
         Artist artist = new Artist();
         artist.name = username;
-        artist.hashed_password = BcryptUtil.bcryptHash(password);
+        artist.hashed_password = hashPassword(password);
         artist.role = "artist";
         artist.email = email;
         artist.verified = verified;
@@ -61,6 +62,19 @@ public class Artist extends User {
         return list("verified", true);
     }
 
+    /**
+     * Artists changed since a point in time, in id order, for incremental exports.
+     * Accounts that were never updated count as changed when they were created.
+     * @param since the watermark of the previous export, or null for every artist
+     * @return the query, not yet executed
+     */
+    public static PanacheQuery<Artist> findUpdatedSince(LocalDateTime since) {
+        if (since == null) {
+            return findAll(Sort.by("id"));
+        }
+        return find("coalesce(timeUpdated, timeCreated) >= ?1", Sort.by("id"), since);
+    }
+
     public static CommissionCard getCommissionCard(String username) {
         Artist artist = (Artist) findByUsername(username); // Cast to artist which is ok
         if (artist != null) {
@@ -79,13 +93,7 @@ public class Artist extends User {
 
     public static double getLowestPrice(String username) {
         Artist artist = (Artist) findByUsername(username); // Cast to artist which is ok
-        if (artist != null && artist.commissionCard != null && !artist.commissionCard.elements.isEmpty()) {
-            return artist.commissionCard.elements.stream()
-                    .mapToDouble(element -> element.price)
-                    .min()
-                    .orElse(0.0);
-        }
-        return 0.0;
+        return artist != null ? artist.getLowestPrice() : 0.0;
     }
 
     public static void addTagToArtist(String username, Tag tag) {
@@ -101,13 +109,16 @@ public class Artist extends User {
         }
         if (!this.relatedTags.contains(tag)) {
             this.relatedTags.add(tag);
+            this.touch();
         }
         this.persist();
     }
 
     public void removeTag(Tag tag) {
         if (this.relatedTags != null) {
-            this.relatedTags.remove(tag);
+            if (this.relatedTags.remove(tag)) {
+                this.touch();
+            }
             this.persist();
         }
     }
@@ -117,8 +128,20 @@ public class Artist extends User {
         this.persist();
     }
 
+    /**
+     * Lowest element price of the commission card, computed from the loaded card
+     * instead of looking the artist up again.
+     * @return the lowest price, or 0 if there is no priced element
+     */
     public double getLowestPrice() {
-        return getLowestPrice(this.name);
+        if (commissionCard == null || commissionCard.elements == null) {
+            return 0.0;
+        }
+        return commissionCard.elements.stream()
+                .filter(element -> element.price != null)
+                .mapToDouble(element -> element.price)
+                .min()
+                .orElse(0.0);
     }
 
 }
\ No newline at end of file
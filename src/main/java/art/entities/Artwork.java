@@ -21,6 +21,10 @@ public class Artwork extends PanacheEntity {
     @ManyToOne
     public Artist artist;
 
+    // Home feed delivery: null until handled, true once copied to the followers' inboxes,
+    // false when the artist has too many followers and the feed reads it from here
+    public Boolean fannedOut;
+
     public static void add(String title, String description, LocalDateTime timeCreated, String imageUrl, Double price,
             Artist artist) {
         Artwork artwork = new Artwork();
@@ -1,12 +1,16 @@
 package art.entities;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "following")
+@Table(name = "following", indexes = {
+        @Index(name = "following_followed_id", columnList = "followed_id"),
+        @Index(name = "following_follower_followed", columnList = "follower_id, followed_id")
+})
 public class Following extends PanacheEntity {
     
     @ManyToOne
@@ -23,6 +27,44 @@ public class Following extends PanacheEntity {
     public LocalDateTime followedAt;
     public LocalDateTime syncedAt;
     
+    /**
+     * Query of the followings of a user, for the callers that don't have the user loaded in their session.
+     * @param followerId id of the follower
+     * @param openOnly only the followed artists open for commissions
+     * @return the query, not yet executed
+     */
+    public static PanacheQuery<Following> findByFollowerId(Long followerId, boolean openOnly) {
+        if (openOnly) {
+            return find("follower.id = ?1 and followed.role = 'artist' and followed.isOpenForCommissions = true", followerId);
+        }
+        return find("follower.id", followerId);
+    }
+
+    /**
+     * Names of the users following an artist, through the index on {@code followed_id}, sorted.
+     * @param followedId id of the followed artist
+     */
+    public static List<String> findFollowerNames(Long followedId) {
+        return getEntityManager()
+                .createQuery("select distinct f.follower.name from Following f where f.followed.id = ?1 "
+                        + "order by f.follower.name", String.class)
+                .setParameter(1, followedId)
+                .getResultList();
+    }
+
+    /**
+     * Names of the users a user follows and who follow them back, sorted.
+     * @param userId id of the user
+     */
+    public static List<String> findMutualNames(Long userId) {
+        return getEntityManager()
+                .createQuery("select distinct f.followed.name from Following f where f.follower.id = ?1 and exists "
+                        + "(select 1 from Following g where g.follower.id = f.followed.id and g.followed.id = ?1) "
+                        + "order by f.followed.name", String.class)
+                .setParameter(1, userId)
+                .getResultList();
+    }
+
     public static Following findByFollowerAndHandle(User follower, String blueskyHandle) {
         return find("follower = ?1 and blueskyHandle = ?2", follower, blueskyHandle).firstResult();
     }
@@ -35,7 +77,12 @@ public class Following extends PanacheEntity {
         return find("follower = ?1 and followed.role = 'artist' and followed.isOpenForCommissions = true", follower).list();
     }
     
-    public static void createOrUpdate(User follower, String blueskyHandle, String blueskyDid, String displayName) {
+    /**
+     * Creates the following of a Bluesky account, or refreshes it if it exists,
+     * and links it to the Copla user owning that account if there is one.
+     * @return the created or updated following
+     */
+    public static Following createOrUpdate(User follower, String blueskyHandle, String blueskyDid, String displayName) {
         Following existing = findByFollowerAndHandle(follower, blueskyHandle);
         if (existing == null) {
             Following following = new Following();
@@ -53,6 +100,7 @@ public class Following extends PanacheEntity {
             }
             
             following.persist();
+            return following;
         } else {
             existing.blueskyDid = blueskyDid;
             existing.blueskyDisplayName = displayName;
@@ -67,6 +115,7 @@ public class Following extends PanacheEntity {
             }
             
             existing.persist();
+            return existing;
         }
     }
     
@@ -0,0 +1,48 @@
+package art.entities;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A change committed by the transaction that wrote it, see {@link art.events.Outbox}.
+ * The id is the position of the event in the stream: an identity column assigned at insert,
+ * after the writers were serialized, so that ids are in commit order.
+ */
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    // Dotted name of the change, "commission-status.changed"
+    @Column(nullable = false)
+    public String type;
+
+    // The account that changed
+    @Column(nullable = false)
+    public String username;
+
+    // JSON details of the change
+    @Column(columnDefinition = "text")
+    public String payload;
+
+    @Column(nullable = false)
+    public LocalDateTime createdAt;
+
+    /**
+     * @return the events after a position, in order
+     */
+    public static List<OutboxEvent> after(long position, int limit) {
+        return find("id > ?1 order by id", position).page(0, limit).list();
+    }
+}
@@ -0,0 +1,54 @@
+package art.entities;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Table;
+import org.hibernate.LockOptions;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * How far a subscriber of the outbox got: the id of the last event it handled.
+ */
+@Entity
+@Table(name = "outbox_offset")
+public class OutboxOffset extends PanacheEntityBase {
+
+    @Id
+    public String subscriber;
+
+    public long position;
+
+    public LocalDateTime updatedAt;
+
+    /**
+     * Locks the offset of a subscriber until the end of the transaction, creating it at the start of the stream.
+     * @return the offset, or null if another node is delivering to that subscriber
+     */
+    public static OutboxOffset lock(String subscriber) {
+        getEntityManager()
+                .createNativeQuery("insert into outbox_offset (subscriber, position, updated_at) values (?1, 0, now()) "
+                        + "on conflict do nothing")
+                .setParameter(1, subscriber)
+                .executeUpdate();
+        return find("subscriber", subscriber)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .withHint("jakarta.persistence.lock.timeout", LockOptions.SKIP_LOCKED)
+                .firstResult();
+    }
+
+    /**
+     * @param subscribers names of the current subscribers, the offsets of removed ones don't hold events back
+     * @return the lowest position of those subscribers, events up to it were delivered to all of them
+     */
+    public static long lowest(List<String> subscribers) {
+        Long lowest = getEntityManager()
+                .createQuery("select min(position) from OutboxOffset where subscriber in ?1", Long.class)
+                .setParameter(1, subscribers)
+                .getSingleResult();
+        return lowest == null ? 0 : lowest;
+    }
+}
@@ -1,21 +1,31 @@
 package art.entities;
 
+import art.diagnostics.jfr.PasswordHashEvent;
 import io.quarkus.elytron.security.common.BcryptUtil;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import io.quarkus.security.jpa.*;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import org.hibernate.Session;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
 @UserDefinition
 public class User extends PanacheEntity {
+    // Same cost as BcryptUtil.bcryptHash(String)
+    private static final int BCRYPT_ITERATIONS = 10;
+
     @Username
     public String name;
 
@@ -29,6 +39,9 @@ public class User extends PanacheEntity {
 
     public LocalDateTime timeCreated;
 
+    // Last change of the account or of what is shown with it, the watermark of incremental exports
+    public LocalDateTime timeUpdated;
+
     public String profilePicPath;
 
     public String bio;
@@ -43,13 +56,44 @@ public class User extends PanacheEntity {
     public static void add(String username, String password, String email) {
         User user = new User();
         user.name = username;
-        user.hashed_password = BcryptUtil.bcryptHash(password);
+        user.hashed_password = hashPassword(password);
         user.role = "user";
         user.email = email;
         user.timeCreated = LocalDateTime.now();
         user.persist();
     }
 
+    /**
+     * Hashes a password with bcrypt for the {@code @Password} column.
+     * @param password the clear text password
+     * @return the modular crypt formatted hash
+     */
+    public static String hashPassword(String password) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        String hash = BcryptUtil.bcryptHash(password, BCRYPT_ITERATIONS);
+        event.end();
+        if (event.shouldCommit()) {
+            event.iterations = BCRYPT_ITERATIONS;
+            event.commit();
+        }
+        return hash;
+    }
+
+    /**
+     * Marks the account as modified for the changes that don't update its own row,
+     * such as tags, social profiles or commission card elements.
+     */
+    public void touch() {
+        this.timeUpdated = LocalDateTime.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updated() {
+        this.timeUpdated = LocalDateTime.now();
+    }
+
     public static User findByUsername(String username) {
         return find("name", username).firstResult();
     }
@@ -70,4 +114,28 @@ public class User extends PanacheEntity {
         return listAll();
     }
 
+    /**
+     * Names of users by id, sorted, for the ids answered by the follow graph.
+     */
+    public static List<String> findNamesByIds(int[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Long[] keys = Arrays.stream(ids).asLongStream().boxed().toArray(Long[]::new);
+        // One array parameter: an in list binds one parameter per id, and PostgreSQL takes at most 65535
+        return getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select name from users where id = any(?) order by name")) {
+                statement.setArray(1, connection.createArrayOf("bigint", keys));
+                List<String> names = new ArrayList<>(keys.length);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        names.add(rows.getString(1));
+                    }
+                }
+                return names;
+            }
+        });
+    }
+
 }
@@ -0,0 +1,15 @@
+package art.events;
+
+/**
+ * CDI event fired when something shown on a public profile changes: the account itself, its tags,
+ * social profiles, commission status or commission card. Observers that cache a rendering of the
+ * profile observe it {@code AFTER_SUCCESS} so they only drop it once the change is committed.
+ * @param username name of the changed account
+ * @param remote whether the change was committed by another node and received from the {@link InvalidationBus}
+ */
+public record ArtistProfileChanged(String username, boolean remote) {
+
+    public ArtistProfileChanged(String username) {
+        this(username, false);
+    }
+}
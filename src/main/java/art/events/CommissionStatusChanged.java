@@ -0,0 +1,16 @@
+package art.events;
+
+/**
+ * CDI event fired by the {@link CommissionStatusRelay} when an artist opened or closed commissions,
+ * observed {@code AFTER_SUCCESS} to notify the followers of the artist.
+ * @param artistId id of the artist
+ * @param username name of the artist
+ * @param open whether commissions are now open
+ * @param remote whether the change was committed by another node and received from the {@link InvalidationBus}
+ */
+public record CommissionStatusChanged(long artistId, String username, boolean open, boolean remote) {
+
+    public CommissionStatusChanged(long artistId, String username, boolean open) {
+        this(artistId, username, open, false);
+    }
+}
@@ -0,0 +1,67 @@
+package art.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Turns the {@code commission-status.changed} events of the {@link Outbox} that opened or closed commissions into
+ * {@link CommissionStatusChanged}, which {@link art.resources.CommissionAlerts} pushes to the followers connected to
+ * this node and the {@link InvalidationBus} carries to the others. Through the outbox a change is alerted once,
+ * whichever node made it, even if that node stops right after the commit; it arrives up to one
+ * {@code copla.outbox.poll-interval} later. Changes older than {@code copla.commission-alerts.max-age}, replayed after
+ * an outage, are skipped: an alert is only worth sending while it is news.
+ */
+@ApplicationScoped
+public class CommissionStatusRelay implements OutboxSubscriber {
+
+    private static final Logger log = Logger.getLogger(CommissionStatusRelay.class);
+
+    static final String TYPE = "commission-status.changed";
+
+    @ConfigProperty(name = "copla.commission-alerts.max-age", defaultValue = "5m")
+    Duration maxAge;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Event<CommissionStatusChanged> commissionStatusChanged;
+
+    @Override
+    public String name() {
+        return "commission-alerts";
+    }
+
+    @Override
+    public void handle(List<DomainEvent> events) {
+        LocalDateTime oldest = LocalDateTime.now().minus(maxAge);
+        for (DomainEvent event : events) {
+            if (!TYPE.equals(event.type()) || event.occurredAt().isBefore(oldest)) {
+                continue;
+            }
+            JsonNode payload;
+            try {
+                payload = objectMapper.readTree(event.payload());
+            } catch (JsonProcessingException e) {
+                // Delivering it again won't fix it, and would hold back every later event
+                log.warnf(e, "Skipping the malformed outbox event %d", event.position());
+                continue;
+            }
+            if (payload.path("toggled").asBoolean(false)) {
+                // Observed after the offset commits, a batch delivered again didn't notify the first time
+                commissionStatusChanged.fire(new CommissionStatusChanged(payload.path("artistId").asLong(),
+                        event.username(), payload.path("open").asBoolean()));
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package art.events;
+
+import art.entities.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event of the outbox as delivered to an {@link OutboxSubscriber}.
+ * @param position id of the event, increasing in commit order
+ * @param type dotted name of the change, {@code commission-status.changed}
+ * @param username the account that changed
+ * @param payload JSON details of the change
+ * @param occurredAt when the change was written
+ */
+public record DomainEvent(long position, String type, String username, String payload, LocalDateTime occurredAt) {
+
+    static DomainEvent of(OutboxEvent event) {
+        return new DomainEvent(event.id, event.type, event.username, event.payload, event.createdAt);
+    }
+}
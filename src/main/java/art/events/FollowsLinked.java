@@ -0,0 +1,10 @@
+package art.events;
+
+/**
+ * CDI event fired when followings get linked to Copla accounts, observed {@code AFTER_SUCCESS}
+ * to add the edges to the follow graph and fill the follower's home feed inbox.
+ * @param followerId id of the following user
+ * @param followedIds ids of the users they now follow on Copla, possibly including ones followed before
+ */
+public record FollowsLinked(long followerId, long[] followedIds) {
+}
@@ -0,0 +1,184 @@
+package art.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.pgclient.pubsub.PgSubscriber;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Tuple;
+import io.vertx.pgclient.PgConnectOptions;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the local caches of several nodes coherent through PostgreSQL {@code LISTEN/NOTIFY}. Each committed
+ * {@link ArtistProfileChanged} is published on {@code copla.invalidation.channel} as
+ * {@code node|epoch millis|profile|username}, and the other nodes fire it again locally with {@code remote} set,
+ * so their caches evict the profile the same way as for a local change. {@link CommissionStatusChanged} travels
+ * the same way, as {@code node|epoch millis|commission-status|id,open,username}, for the followers connected
+ * to other nodes.
+ * <p>
+ * Notifications sent while a node is disconnected are lost, so after a reconnect the node fires
+ * {@link LocalCachesStale}. The time from the commit on the sending node to the eviction is recorded in
+ * {@code copla.invalidation.lag}, which includes the clock skew between the nodes.
+ */
+@ApplicationScoped
+public class InvalidationBus {
+
+    private static final Logger log = Logger.getLogger(InvalidationBus.class);
+
+    private static final String PROFILE = "profile";
+    private static final String COMMISSION_STATUS = "commission-status";
+    private static final long MAX_RECONNECT_DELAY = Duration.ofSeconds(30).toMillis();
+
+    @ConfigProperty(name = "copla.invalidation.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "copla.invalidation.channel", defaultValue = "copla_invalidation")
+    String channel;
+
+    @ConfigProperty(name = "quarkus.datasource.reactive.url")
+    Optional<String> url;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String username;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    String password;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    Pool client;
+
+    @Inject
+    Event<ArtistProfileChanged> profileChanged;
+
+    @Inject
+    Event<CommissionStatusChanged> commissionStatusChanged;
+
+    @Inject
+    Event<LocalCachesStale> cachesStale;
+
+    @Inject
+    MeterRegistry registry;
+
+    // Identifies the notifications of this node, which it already applied when committing
+    private final String node = UUID.randomUUID().toString();
+    private PgSubscriber subscriber;
+    private volatile boolean subscribed;
+    private Counter published;
+    private Counter received;
+    private Counter resyncs;
+    private Timer lag;
+
+    void start(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (url.isEmpty()) {
+            log.warn("No reactive datasource URL, cache invalidations won't be sent or received");
+            enabled = false;
+            return;
+        }
+        published = registry.counter("copla.invalidation.published");
+        received = registry.counter("copla.invalidation.received");
+        resyncs = registry.counter("copla.invalidation.resyncs");
+        lag = Timer.builder("copla.invalidation.lag")
+                .description("Time from a commit on another node to the eviction of the local caches")
+                .register(registry);
+
+        // Dev services hand out the URL with the prefix Quarkus uses to pick the reactive driver
+        PgConnectOptions options = PgConnectOptions.fromUri(url.get().replaceFirst("^vertx-reactive:", ""))
+                .setUser(username)
+                .setPassword(password);
+        subscriber = PgSubscriber.subscriber(vertx, options)
+                .reconnectPolicy(retries -> Math.min(MAX_RECONNECT_DELAY, 500L << Math.min(retries, 6)));
+        subscriber.channel(channel).handler(this::received);
+        subscriber.subscriptionHandler(this::subscribed);
+        subscriber.closeHandler(() -> log.warn("Lost the invalidation channel, reconnecting"));
+        subscriber.connect().subscribe().with(
+                ignored -> log.infof("Listening for cache invalidations on %s", channel),
+                failure -> log.error("Failed to listen for cache invalidations, caches of other nodes go stale",
+                        failure));
+    }
+
+    void stop(@Observes ShutdownEvent event) {
+        if (subscriber != null) {
+            subscriber.closeAndAwait();
+        }
+    }
+
+    void publish(@Observes(during = TransactionPhase.AFTER_SUCCESS) ArtistProfileChanged event) {
+        if (enabled && !event.remote()) {
+            publish(PROFILE, event.username());
+        }
+    }
+
+    void publish(@Observes(during = TransactionPhase.AFTER_SUCCESS) CommissionStatusChanged event) {
+        if (enabled && !event.remote()) {
+            publish(COMMISSION_STATUS, event.artistId() + "," + event.open() + "," + event.username());
+        }
+    }
+
+    private void publish(String kind, String key) {
+        String payload = String.join("|", node, Long.toString(System.currentTimeMillis()), kind, key);
+        client.preparedQuery("select pg_notify($1, $2)").execute(Tuple.of(channel, payload)).subscribe().with(
+                ignored -> published.increment(),
+                failure -> log.warnf(failure, "Failed to publish %s %s", kind, key));
+    }
+
+    private void subscribed() {
+        if (subscribed) {
+            // Anything committed while disconnected went unnoticed
+            resyncs.increment();
+            log.info("Reconnected to the invalidation channel, marking the local caches stale");
+            Infrastructure.getDefaultWorkerPool().execute(() -> cachesStale.fire(new LocalCachesStale()));
+        }
+        subscribed = true;
+    }
+
+    private void received(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4 || !parts[1].matches("\\d+")) {
+            log.debugf("Ignoring invalidation %s", payload);
+            return;
+        }
+        if (node.equals(parts[0])) {
+            return;
+        }
+        Runnable fire;
+        if (PROFILE.equals(parts[2])) {
+            fire = () -> profileChanged.fire(new ArtistProfileChanged(parts[3], true));
+        } else if (COMMISSION_STATUS.equals(parts[2]) && parts[3].matches("\\d+,(true|false),.+")) {
+            String[] status = parts[3].split(",", 3);
+            fire = () -> commissionStatusChanged.fire(new CommissionStatusChanged(Long.parseLong(status[0]), status[2],
+                    Boolean.parseBoolean(status[1]), true));
+        } else {
+            log.debugf("Ignoring invalidation %s", payload);
+            return;
+        }
+        received.increment();
+        long committed = Long.parseLong(parts[1]);
+        // Observers may block, the handler runs on the event loop
+        Infrastructure.getDefaultWorkerPool().execute(() -> {
+            fire.run();
+            lag.record(Math.max(0, System.currentTimeMillis() - committed), TimeUnit.MILLISECONDS);
+        });
+    }
+}
@@ -0,0 +1,8 @@
+package art.events;
+
+/**
+ * CDI event fired when this node may have missed invalidations, after the {@link InvalidationBus} reconnected.
+ * Observers treat everything they cache as possibly stale.
+ */
+public record LocalCachesStale() {
+}
@@ -0,0 +1,55 @@
+package art.events;
+
+import art.entities.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Writes the changes of the accounts to the {@code outbox_event} table, in the transaction making the change,
+ * so that an event exists if and only if its change was committed. The {@link OutboxDispatcher} then delivers
+ * them to the {@link OutboxSubscriber}s.
+ * <p>
+ * The writers are serialized by a transaction-level advisory lock taken before the insert: the ids of the events
+ * are then assigned in commit order, and a subscriber that handled an id can't later see a smaller one commit.
+ * Writes are rare enough for that lock not to matter.
+ */
+@ApplicationScoped
+public class Outbox {
+
+    // Key of the advisory lock, "copla" in ASCII
+    private static final long WRITE_LOCK = 0x636f706c61L;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /**
+     * @param type dotted name of the change, {@code commission-status.changed}
+     * @param username the account that changed
+     * @param details serialized as the JSON payload of the event
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void append(String type, String username, Map<String, ?> details) {
+        OutboxEvent.getEntityManager()
+                .createNativeQuery("select count(*) from (select pg_advisory_xact_lock(?1)) l")
+                .setParameter(1, WRITE_LOCK)
+                .getSingleResult();
+
+        OutboxEvent event = new OutboxEvent();
+        event.type = type;
+        event.username = username;
+        try {
+            event.payload = objectMapper.writeValueAsString(details);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        event.createdAt = LocalDateTime.now();
+        event.persist();
+    }
+}
@@ -0,0 +1,111 @@
+package art.events;
+
+import art.entities.OutboxEvent;
+import art.entities.OutboxOffset;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delivers the events of the {@link Outbox} to every {@link OutboxSubscriber}, in order and in batches of up to
+ * {@code copla.outbox.batch-size}, polling every {@code copla.outbox.poll-interval}.
+ * <p>
+ * Each batch is handled in one transaction with the update of the subscriber's {@link OutboxOffset}, which stays
+ * locked meanwhile: when several nodes run, a subscriber is served by one of them at a time. A failed batch is
+ * delivered again at the next poll, so delivery is at least once. Events that every subscriber handled are removed
+ * after {@code copla.outbox.retention}.
+ */
+@ApplicationScoped
+public class OutboxDispatcher {
+
+    private static final Logger log = Logger.getLogger(OutboxDispatcher.class);
+
+    @ConfigProperty(name = "copla.outbox.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "copla.outbox.batch-size", defaultValue = "100")
+    int batchSize;
+
+    // Bounds the time a poll spends catching up on a single subscriber
+    @ConfigProperty(name = "copla.outbox.max-batches-per-poll", defaultValue = "10")
+    int maxBatches;
+
+    @ConfigProperty(name = "copla.outbox.retention", defaultValue = "7d")
+    Duration retention;
+
+    @Inject
+    @Any
+    Instance<OutboxSubscriber> subscribers;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Scheduled(every = "${copla.outbox.poll-interval:1s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        for (OutboxSubscriber subscriber : subscribers) {
+            try {
+                for (int i = 0; i < maxBatches && deliver(subscriber); i++) {
+                    log.debugf("Subscriber %s is catching up", subscriber.name());
+                }
+            } catch (RuntimeException e) {
+                registry.counter("copla.outbox.failures", "subscriber", subscriber.name()).increment();
+                log.warnf(e, "Subscriber %s failed, its batch will be delivered again", subscriber.name());
+            }
+        }
+    }
+
+    /**
+     * @return whether a full batch was delivered, more events may be waiting
+     */
+    private boolean deliver(OutboxSubscriber subscriber) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            OutboxOffset offset = OutboxOffset.lock(subscriber.name());
+            if (offset == null) {
+                return false;
+            }
+            List<DomainEvent> batch = OutboxEvent.after(offset.position, batchSize).stream()
+                    .map(DomainEvent::of)
+                    .toList();
+            if (batch.isEmpty()) {
+                return false;
+            }
+
+            subscriber.handle(batch);
+
+            DomainEvent last = batch.get(batch.size() - 1);
+            offset.position = last.position();
+            offset.updatedAt = LocalDateTime.now();
+            registry.counter("copla.outbox.delivered", "subscriber", subscriber.name()).increment(batch.size());
+            registry.timer("copla.outbox.delay", "subscriber", subscriber.name())
+                    .record(Duration.between(last.occurredAt(), offset.updatedAt));
+            return batch.size() == batchSize;
+        });
+    }
+
+    @Scheduled(every = "${copla.outbox.cleanup-interval:1h}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        List<String> names = subscribers.stream().map(OutboxSubscriber::name).toList();
+        long delivered = names.isEmpty() ? Long.MAX_VALUE : OutboxOffset.lowest(names);
+        long removed = OutboxEvent.delete("id <= ?1 and createdAt < ?2", delivered,
+                LocalDateTime.now().minus(retention));
+        log.debugf("Removed %d delivered outbox events", removed);
+    }
+}
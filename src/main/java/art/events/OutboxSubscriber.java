@@ -0,0 +1,21 @@
+package art.events;
+
+import java.util.List;
+
+/**
+ * A bean consuming the events of the {@link Outbox}, delivered by the {@link OutboxDispatcher}.
+ */
+public interface OutboxSubscriber {
+
+    /**
+     * @return the key of the subscriber's offset, a new name starts again from the oldest event kept
+     */
+    String name();
+
+    /**
+     * Handles a batch of events, in order. Runs in the transaction that then saves the offset, so database
+     * writes made here commit along with it. Throwing delivers the same batch again, as does a crash before
+     * the commit: handling must be idempotent.
+     */
+    void handle(List<DomainEvent> events);
+}
@@ -0,0 +1,220 @@
+package art.graph;
+
+import art.events.FollowsLinked;
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The linked followings of {@code following} held in memory, to answer who follows whom without joins: a
+ * {@link FollowGraphSnapshot} loaded at startup, plus a {@link FollowGraphDelta} of the links committed since.
+ * Readers take both from volatile fields without locking. The snapshot is rebuilt every
+ * {@code copla.follow-graph.rebuild-interval}, which also picks up the writes of other nodes and of plain SQL,
+ * and as soon as the delta exceeds {@code copla.follow-graph.max-delta} edges.
+ * <p>
+ * Users are stored as int ids: a user with a larger id is left out, and callers check {@link #covers(long)} first
+ * to fall back to the database. Queries return user ids, ascending. The size of the graph is published in the {@code copla.follow-graph.*}
+ * gauges, and each rebuild logs its footprint per million edges.
+ */
+@ApplicationScoped
+public class FollowGraph {
+
+    private static final Logger log = Logger.getLogger(FollowGraph.class);
+
+    // Users beyond an int id are left to the database, see covers()
+    private static final String EDGES = "select follower_id, followed_id from following "
+            + "where follower_id is not null and followed_id is not null "
+            + "and follower_id <= 2147483647 and followed_id <= 2147483647";
+
+    @ConfigProperty(name = "copla.follow-graph.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "copla.follow-graph.max-delta", defaultValue = "50000")
+    int maxDelta;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    MeterRegistry registry;
+
+    private volatile FollowGraphSnapshot snapshot = FollowGraphSnapshot.EMPTY;
+    private volatile FollowGraphDelta delta = FollowGraphDelta.EMPTY;
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    void init(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("copla.follow-graph.edges", this, graph -> graph.snapshot.edges() + graph.delta.size())
+                .register(registry);
+        Gauge.builder("copla.follow-graph.nodes", this, graph -> graph.snapshot.nodes()).register(registry);
+        Gauge.builder("copla.follow-graph.delta", this, graph -> graph.delta.size()).register(registry);
+        Gauge.builder("copla.follow-graph.memory", this, graph -> graph.snapshot.bytes() + graph.delta.bytes())
+                .baseUnit("bytes")
+                .register(registry);
+        rebuild();
+    }
+
+    /**
+     * @return whether the graph was loaded and can hold the user, callers fall back to the database otherwise
+     */
+    public boolean covers(long userId) {
+        return ready && fits(userId);
+    }
+
+    private static boolean fits(long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the ids of the users a user follows on Copla
+     */
+    public int[] followees(long userId) {
+        int id = Math.toIntExact(userId);
+        return FollowGraphSnapshot.union(snapshot.followees(id), delta.followees(id));
+    }
+
+    /**
+     * @return the ids of the users following a user
+     */
+    public int[] followers(long userId) {
+        int id = Math.toIntExact(userId);
+        return FollowGraphSnapshot.union(snapshot.followers(id), delta.followers(id));
+    }
+
+    /**
+     * @return the ids of the users that a user follows and who follow them back
+     */
+    public int[] mutuals(long userId) {
+        return FollowGraphSnapshot.intersection(followees(userId), followers(userId));
+    }
+
+    public boolean follows(long followerId, long followedId) {
+        int from = Math.toIntExact(followerId);
+        int to = Math.toIntExact(followedId);
+        return delta.follows(from, to) || snapshot.follows(from, to);
+    }
+
+    void linked(@Observes(during = TransactionPhase.AFTER_SUCCESS) FollowsLinked event) {
+        if (!enabled || event.followedIds().length == 0 || !fits(event.followerId())) {
+            return;
+        }
+        int follower = (int) event.followerId();
+        long[] edges = new long[event.followedIds().length];
+        int count = 0;
+        for (long followed : event.followedIds()) {
+            if (!fits(followed)) {
+                continue;
+            }
+            int to = (int) followed;
+            if (to != follower && !snapshot.follows(follower, to)) {
+                edges[count++] = FollowGraphDelta.pack(follower, to);
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        int size;
+        synchronized (this) {
+            delta = delta.with(Arrays.copyOf(edges, count));
+            size = delta.size();
+        }
+        if (size > maxDelta && !rebuilding.get()) {
+            Infrastructure.getDefaultWorkerPool().execute(this::rebuild);
+        }
+    }
+
+    @Scheduled(every = "${copla.follow-graph.rebuild-interval:15m}",
+            delayed = "${copla.follow-graph.rebuild-interval:15m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void rebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            // Committed before the read below, so the new snapshot has these edges
+            FollowGraphDelta applied = delta;
+            FollowGraphSnapshot built = load();
+            synchronized (this) {
+                snapshot = built;
+                delta = delta.without(applied);
+            }
+            ready = true;
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            double megabytes = built.bytes() / (1024.0 * 1024.0);
+            log.infof("Follow graph loaded in %d ms: %d users, %d edges, %.1f MB, %.1f MB per million edges",
+                    millis, built.nodes(), built.edges(), megabytes,
+                    built.edges() == 0 ? 0.0 : megabytes * 1_000_000 / built.edges());
+        } catch (SQLException e) {
+            log.warn("Failed to load the follow graph, keeping the previous one", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private FollowGraphSnapshot load() throws SQLException {
+        Edges edges = new Edges();
+        try (Connection connection = dataSource.getConnection()) {
+            // Streams the rows instead of buffering the whole result in the driver
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.setFetchSize(10_000);
+                try (ResultSet rows = statement.executeQuery(EDGES)) {
+                    while (rows.next()) {
+                        edges.add(rows.getLong(1), rows.getLong(2));
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+        return edges.build();
+    }
+
+    /**
+     * The edges of a snapshot being loaded. An edge with a user that doesn't fit in an int is skipped, like in
+     * {@link #linked(FollowsLinked)}, rather than failing the whole load.
+     */
+    static final class Edges {
+
+        private int[] followers = new int[1024];
+        private int[] followed = new int[1024];
+        private int count;
+
+        void add(long followerId, long followedId) {
+            if (!fits(followerId) || !fits(followedId)) {
+                return;
+            }
+            if (count == followers.length) {
+                followers = Arrays.copyOf(followers, count + (count >> 1));
+                followed = Arrays.copyOf(followed, count + (count >> 1));
+            }
+            followers[count] = (int) followerId;
+            followed[count] = (int) followedId;
+            count++;
+        }
+
+        FollowGraphSnapshot build() {
+            return FollowGraphSnapshot.build(followers, followed, count);
+        }
+    }
+}
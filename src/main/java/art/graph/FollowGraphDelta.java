@@ -0,0 +1,121 @@
+package art.graph;
+
+import java.util.Arrays;
+
+/**
+ * The edges added since the last {@link FollowGraphSnapshot}, immutable. Each edge is a long packing two user ids,
+ * kept sorted twice: by follower ({@code follower << 32 | followed}) and by followed ({@code followed << 32 | follower}),
+ * so the edges of a user are one binary search and a contiguous range away.
+ */
+final class FollowGraphDelta {
+
+    static final FollowGraphDelta EMPTY = new FollowGraphDelta(new long[0], new long[0]);
+
+    private final long[] out;
+    private final long[] in;
+
+    private FollowGraphDelta(long[] out, long[] in) {
+        this.out = out;
+        this.in = in;
+    }
+
+    static long pack(int high, int low) {
+        return (long) high << 32 | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param edges packed {@code follower << 32 | followed}
+     * @return this delta with the edges added
+     */
+    FollowGraphDelta with(long[] edges) {
+        long[] added = edges.clone();
+        long[] reversed = new long[added.length];
+        for (int i = 0; i < added.length; i++) {
+            reversed[i] = pack((int) added[i], (int) (added[i] >>> 32));
+        }
+        Arrays.sort(added);
+        Arrays.sort(reversed);
+        return new FollowGraphDelta(union(out, added), union(in, reversed));
+    }
+
+    /**
+     * @return this delta without the edges of an older one, once a snapshot contains them
+     */
+    FollowGraphDelta without(FollowGraphDelta applied) {
+        return new FollowGraphDelta(difference(out, applied.out), difference(in, applied.in));
+    }
+
+    int[] followees(int userId) {
+        return range(out, userId);
+    }
+
+    int[] followers(int userId) {
+        return range(in, userId);
+    }
+
+    boolean follows(int followerId, int followedId) {
+        return Arrays.binarySearch(out, pack(followerId, followedId)) >= 0;
+    }
+
+    int size() {
+        return out.length;
+    }
+
+    long bytes() {
+        return 8L * (out.length + in.length);
+    }
+
+    private static int[] range(long[] edges, int userId) {
+        int from = lowerBound(edges, pack(userId, 0));
+        // Ids are positive ints, so no edge packs to userId << 32 | 0xFFFFFFFF; userId + 1 would overflow on the largest
+        int to = lowerBound(edges, pack(userId, -1));
+        int[] result = new int[to - from];
+        for (int i = from; i < to; i++) {
+            result[i - from] = (int) edges[i];
+        }
+        return result;
+    }
+
+    private static int lowerBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] result = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length || j < b.length) {
+            long next = j == b.length || i < a.length && a[i] <= b[j] ? a[i++] : b[j++];
+            if (n == 0 || result[n - 1] != next) {
+                result[n++] = next;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static long[] difference(long[] a, long[] b) {
+        long[] result = new long[a.length];
+        int j = 0;
+        int n = 0;
+        for (long edge : a) {
+            while (j < b.length && b[j] < edge) {
+                j++;
+            }
+            if (j == b.length || b[j] != edge) {
+                result[n++] = edge;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+}
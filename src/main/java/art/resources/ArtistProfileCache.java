@@ -0,0 +1,205 @@
+package art.resources;
+
+import art.diagnostics.DtoMapping;
+import art.dtos.ArtistDto;
+import art.entities.Artist;
+import art.entities.User;
+import art.events.ArtistProfileChanged;
+import art.events.LocalCachesStale;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The public profile of each artist ({@code GET /api/users/{username}}) as serialized JSON, written as is
+ * to the response. {@link ArtistProfileChanged} doesn't drop an entry but marks it stale: the next request
+ * still gets the old bytes while one rebuild runs in the background, so a hot profile never goes back to
+ * the database on the request path. An artist never gets a stale entry of their own profile, so they see their
+ * edits at once; who is asking is only resolved, from the validated {@code SecurityIdentity}, for stale entries.
+ * <p>
+ * Misses are filled by the caller with {@link #put(String, byte[], long)}, passing the token taken before
+ * loading so that a profile read before a change doesn't land in the cache after it.
+ */
+@ApplicationScoped
+public class ArtistProfileCache {
+
+    private static final Logger log = Logger.getLogger(ArtistProfileCache.class);
+
+    // quarkus.http.auth.form.cookie-name, without it the request can't be the owner's
+    public static final String SESSION_COOKIE = "quarkus-credential";
+
+    private static final class Entry {
+        final byte[] json;
+        volatile boolean stale;
+        final AtomicBoolean rebuilding = new AtomicBoolean();
+
+        Entry(byte[] json) {
+            this.json = json;
+        }
+    }
+
+    @ConfigProperty(name = "copla.profile-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "copla.profile-cache.maximum-size", defaultValue = "10000")
+    long maximumSize;
+
+    // Upper bound on how long a missed invalidation could last
+    @ConfigProperty(name = "copla.profile-cache.expire-after-write", defaultValue = "1h")
+    Duration expireAfterWrite;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    DtoMapping dtoMapping;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Cache<String, Entry> entries;
+    // Sequence of the changes, and the last one of each recently changed profile
+    private final AtomicLong changes = new AtomicLong();
+    private final Cache<String, Long> recentChanges = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+    private Counter staleServed;
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, entries, "artist-profiles");
+        staleServed = registry.counter("copla.profile-cache.stale-served");
+    }
+
+    /**
+     * @param owner whether the profile is the one of the signed in user, which rules out stale entries;
+     *              only called for a stale entry
+     * @return the cached profile, possibly stale with a rebuild started, or null on a miss
+     */
+    public byte[] get(String username, BooleanSupplier owner) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.getIfPresent(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.stale) {
+            if (entry.rebuilding.compareAndSet(false, true)) {
+                Infrastructure.getDefaultWorkerPool().execute(() -> rebuild(username));
+            }
+            if (owner.getAsBoolean()) {
+                return null;
+            }
+            staleServed.increment();
+        }
+        return entry.json;
+    }
+
+    /**
+     * @return whether the cached profile is stale, for callers that must resolve the owner before {@link #get}
+     */
+    public boolean isStale(String username) {
+        Entry entry = enabled ? entries.getIfPresent(username) : null;
+        return entry != null && entry.stale;
+    }
+
+    /**
+     * @return the token to pass to {@link #put(String, byte[], long)}, taken before loading the profile
+     */
+    public long token() {
+        return changes.get();
+    }
+
+    /**
+     * Caches a profile loaded after {@link #token()}, unless it changed in the meantime.
+     * Profiles read from the replica pass a negative token: they might predate any recent change.
+     */
+    public void put(String username, byte[] json, long token) {
+        if (enabled && !changedSince(username, token)) {
+            entries.put(username, new Entry(json));
+        }
+    }
+
+    private boolean changedSince(String username, long token) {
+        Long change = recentChanges.getIfPresent(username);
+        return change != null && change > token;
+    }
+
+    /**
+     * Serializes a profile the way the endpoint returns it.
+     */
+    public byte[] serialize(ArtistDto artist) {
+        try {
+            return objectMapper.writeValueAsBytes(artist);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void changed(@Observes(during = TransactionPhase.AFTER_SUCCESS) ArtistProfileChanged event) {
+        recentChanges.put(event.username(), changes.incrementAndGet());
+        Entry entry = entries.getIfPresent(event.username());
+        if (entry != null) {
+            entry.stale = true;
+        }
+    }
+
+    void resync(@Observes LocalCachesStale event) {
+        entries.asMap().values().forEach(entry -> entry.stale = true);
+    }
+
+    private void rebuild(String username) {
+        long token = token();
+        try {
+            byte[] json = QuarkusTransaction.requiringNew().call(() -> {
+                User user = User.findByUsername(username);
+                if (!(user instanceof Artist artist)) {
+                    return null;
+                }
+                return serialize(dtoMapping.map(ArtistDto.class, () -> new ArtistDto(artist)));
+            });
+            if (json == null) {
+                entries.invalidate(username);
+            } else if (!changedSince(username, token)) {
+                entries.put(username, new Entry(json));
+            } else {
+                // Changed again while rebuilding, the next request starts another rebuild
+                Entry entry = entries.getIfPresent(username);
+                if (entry != null) {
+                    entry.rebuilding.set(false);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warnf(e, "Failed to rebuild the cached profile of %s, serving the stale one", username);
+            Entry entry = entries.getIfPresent(username);
+            if (entry != null) {
+                entry.rebuilding.set(false);
+            }
+        }
+    }
+}
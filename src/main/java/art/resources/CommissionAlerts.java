@@ -0,0 +1,119 @@
+package art.resources;
+
+import art.entities.Following;
+import art.events.CommissionStatusChanged;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The open event streams of {@link NotificationResource}, by user. An idle stream is an emitter in this map and
+ * a connection parked on the event loop, no thread. When an artist opens or closes commissions, the names of their
+ * followers are read once through the {@code followed_id} index of {@code following}, and the event is pushed
+ * to the streams of those connected here. Followers connected to other nodes get it there, through the
+ * {@link art.events.InvalidationBus}.
+ */
+@ApplicationScoped
+public class CommissionAlerts {
+
+    private static final Logger log = Logger.getLogger(CommissionAlerts.class);
+
+    static final String EVENT_NAME = "commission-status";
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, Set<MultiEmitter<? super OutboundSseEvent>>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    // The same for every request, kept to build the events sent outside of one
+    private volatile Sse sse;
+    private Counter sent;
+
+    @PostConstruct
+    void init() {
+        registry.gauge("copla.commission-alerts.connections", connections);
+        sent = registry.counter("copla.commission-alerts.sent");
+    }
+
+    /**
+     * @return the events for a user, until the client disconnects
+     */
+    Multi<OutboundSseEvent> stream(String username, Sse sse) {
+        this.sse = sse;
+        return Multi.createFrom().emitter(emitter -> {
+            streams.compute(username, (name, emitters) -> {
+                if (emitters == null) {
+                    emitters = ConcurrentHashMap.newKeySet();
+                }
+                emitters.add(emitter);
+                return emitters;
+            });
+            connections.incrementAndGet();
+            emitter.onTermination(() -> {
+                connections.decrementAndGet();
+                streams.computeIfPresent(username, (name, emitters) -> {
+                    emitters.remove(emitter);
+                    return emitters.isEmpty() ? null : emitters;
+                });
+            });
+        });
+    }
+
+    void statusChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CommissionStatusChanged event) {
+        if (streams.isEmpty()) {
+            return;
+        }
+        // Off the thread of the request that made the change
+        Infrastructure.getDefaultWorkerPool().execute(() -> {
+            try {
+                List<String> followers = QuarkusTransaction.requiringNew()
+                        .call(() -> Following.findFollowerNames(event.artistId()));
+                OutboundSseEvent alert = sse.newEventBuilder()
+                        .name(EVENT_NAME)
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(Map.of("artist", event.username(), "open", event.open()))
+                        .build();
+                for (String follower : followers) {
+                    Set<MultiEmitter<? super OutboundSseEvent>> emitters = streams.get(follower);
+                    if (emitters != null) {
+                        emitters.forEach(emitter -> emitter.emit(alert));
+                        sent.increment(emitters.size());
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warnf(e, "Failed to notify the followers of %s", event.username());
+            }
+        });
+    }
+
+    /**
+     * Keeps idle streams open through proxies and the HTTP idle timeout, and finds the closed ones.
+     */
+    @Scheduled(every = "${copla.commission-alerts.heartbeat:25s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void heartbeat() {
+        if (streams.isEmpty()) {
+            return;
+        }
+        OutboundSseEvent ping = sse.newEventBuilder().comment("ping").build();
+        streams.values().forEach(emitters -> emitters.forEach(emitter -> emitter.emit(ping)));
+    }
+}
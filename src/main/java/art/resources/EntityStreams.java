@@ -0,0 +1,158 @@
+package art.resources;
+
+import art.concurrency.DbPermit;
+import art.concurrency.DbPermits;
+import art.diagnostics.DtoMapping;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes query results to the response while they are read, instead of building the entity list,
+ * the DTO list and the JSON document in memory first. Rows are read through a forward-only cursor
+ * in chunks of {@code copla.streaming.fetch-size}; each chunk is mapped, written and flushed, then
+ * evicted from the persistence context, so the heap used does not grow with the result size.
+ * <p>
+ * The read transaction lasts as long as the client takes to download the response,
+ * it is bounded by {@code copla.streaming.transaction-timeout}. The body is written after the resource method
+ * returned its {@link DbPermit}, so on virtual threads the transaction takes a permit of its own for that long.
+ */
+@ApplicationScoped
+public class EntityStreams {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    DtoMapping dtoMapping;
+
+    @Inject
+    DbPermits permits;
+
+    @ConfigProperty(name = "copla.streaming.fetch-size", defaultValue = "100")
+    int fetchSize;
+
+    @ConfigProperty(name = "copla.streaming.transaction-timeout", defaultValue = "10m")
+    Duration transactionTimeout;
+
+    @FunctionalInterface
+    interface ChunkWriter<D> {
+        void write(List<D> chunk) throws IOException;
+    }
+
+    /**
+     * Streams the results of a query as a JSON array.
+     * @param query creates the query, it is run in its own read-only transaction once the response is written
+     * @param dto the DTO type
+     * @param mapper maps an entity to its DTO, lazy associations can be loaded
+     * @return the response body
+     */
+    public <E, D> StreamingOutput jsonArray(Supplier<PanacheQuery<E>> query, Class<D> dto, Function<E, D> mapper) {
+        return output -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+                generator.writeStartArray();
+                forEachChunk(query, dto, mapper, false, chunk -> {
+                    for (D element : chunk) {
+                        generator.writeObject(element);
+                    }
+                    generator.flush();
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * Streams the results of a query as newline delimited JSON, one document per line,
+     * read from a single repeatable read snapshot so that a long export is consistent.
+     * @param query creates the query, it is run in its own transaction once the response is written
+     * @param dto the DTO type
+     * @param mapper maps an entity to its DTO, lazy associations can be loaded
+     * @param gzip compress the body, the caller sets the Content-Encoding header
+     * @return the response body
+     */
+    public <E, D> StreamingOutput ndjson(Supplier<PanacheQuery<E>> query, Class<D> dto, Function<E, D> mapper,
+            boolean gzip) {
+        return output -> {
+            // Sync flush so every chunk reaches the client as soon as it is written
+            OutputStream target = gzip ? new GZIPOutputStream(output, 8192, true) : output;
+            try (JsonGenerator generator = objectMapper.createGenerator(target)) {
+                generator.setRootValueSeparator(null);
+                forEachChunk(query, dto, mapper, true, chunk -> {
+                    for (D element : chunk) {
+                        generator.writeObject(element);
+                        generator.writeRaw('\n');
+                    }
+                    generator.flush();
+                });
+            }
+        };
+    }
+
+    <E, D> void forEachChunk(Supplier<PanacheQuery<E>> query, Class<D> dto, Function<E, D> mapper,
+            boolean snapshot, ChunkWriter<D> writer) throws IOException {
+        boolean acquired = false;
+        try {
+            if (Thread.currentThread().isVirtual()) {
+                acquired = permits.acquire();
+            }
+            QuarkusTransaction.requiringNew().timeout((int) transactionTimeout.toSeconds()).run(() -> {
+                Session session = Panache.getSession();
+                session.setDefaultReadOnly(true);
+                if (snapshot) {
+                    // Must be the first statement of the transaction
+                    session.createNativeMutationQuery("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY")
+                            .executeUpdate();
+                }
+                try (Stream<E> rows = query.get()
+                        .withHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                        .withHint(HibernateHints.HINT_READ_ONLY, true)
+                        .stream()) {
+                    Iterator<E> iterator = rows.iterator();
+                    List<E> chunk = new ArrayList<>(fetchSize);
+                    while (iterator.hasNext()) {
+                        chunk.add(iterator.next());
+                        if (chunk.size() == fetchSize || !iterator.hasNext()) {
+                            // Mapping a whole chunk lets batch fetching load the lazy associations of its rows together
+                            writer.write(dtoMapping.mapAll(dto, chunk, mapper));
+                            chunk.clear();
+                            session.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a database permit");
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+        }
+    }
+}
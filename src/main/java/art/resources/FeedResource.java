@@ -0,0 +1,88 @@
+package art.resources;
+
+import art.concurrency.Bulkhead;
+import art.concurrency.DbPermit;
+import art.dtos.FeedPageDto;
+import art.entities.User;
+import io.quarkus.security.Authenticated;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+@Path("/feed")
+@Authenticated
+@RunOnVirtualThread
+@Bulkhead("api")
+@DbPermit
+public class FeedResource {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 50;
+
+    @Inject
+    SecurityIdentity identity;
+
+    @Inject
+    HomeFeed homeFeed;
+
+    /**
+     * The newest artworks of the artists the signed-in user follows.
+     * @param cursor the {@code next} of the previous page, absent for the first one
+     * @param limit the size of the page, up to 50
+     * @return the page and the cursor of the next one
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getFeed(@QueryParam("cursor") String cursor, @QueryParam("limit") Integer limit) {
+        HomeFeed.Cursor after = HomeFeed.Cursor.START;
+        if (cursor != null && !cursor.isEmpty()) {
+            after = decode(cursor);
+            if (after == null) {
+                return Response.status(Response.Status.BAD_REQUEST).entity(Map.of("message", "Invalid cursor")).build();
+            }
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        User user = User.findByUsername(identity.getPrincipal().getName());
+        if (user == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity(Map.of("message", "User not found")).build();
+        }
+
+        HomeFeed.Page page = homeFeed.page(user.id, after, size);
+        return Response.ok(new FeedPageDto(page.items(), page.next() == null ? null : encode(page.next()))).build();
+    }
+
+    private static String encode(HomeFeed.Cursor cursor) {
+        String position = cursor.timeCreated() + "|" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the cursor, or null if it isn't one of ours
+     */
+    private static HomeFeed.Cursor decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+            return new HomeFeed.Cursor(LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package art.resources;
+
+import art.dtos.ArtworkDto;
+import art.events.FollowsLinked;
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The home feed: the artworks of the artists a user follows, newest first, paged by {@code (timeCreated, id)}.
+ * <p>
+ * Hybrid fan-out. A new artwork of an artist with at most {@code copla.feed.fan-out-limit} followers is copied to
+ * the {@code feed_inbox} of each follower, so reading a feed is one range scan of the user's inbox. The artworks of
+ * artists with more followers stay where they are, and a read merges in the newest artworks of the followed ones,
+ * one index range per artist, bounded by the page size. Both paths only touch a page worth of rows whatever the
+ * number of follows, so the latency doesn't grow with them.
+ * <p>
+ * The {@code fannedOut} column of each artwork records which path it took, the artists with artworks read on merge
+ * are kept in memory. The fan-out runs every {@code copla.feed.fan-out-interval} over the artworks not handled yet,
+ * whoever wrote them. When a user follows an artist, the newest {@code copla.feed.backfill-per-artist} artworks
+ * already fanned out are copied to their inbox, the older ones are not shown.
+ * <p>
+ * {@code feed_inbox} is kept out of the Hibernate model, its rows are only written and read here in bulk. It is created
+ * at startup, and dropped first when Hibernate regenerates the schema so that no entry outlives its artwork ids.
+ */
+@ApplicationScoped
+public class HomeFeed {
+
+    private static final Logger log = Logger.getLogger(HomeFeed.class);
+
+    private static final String PENDING = "select id, artist_id, time_created from artworks where fanned_out is null "
+            + "order by id limit ? for update skip locked";
+
+    private static final String FOLLOWERS = "select count(*) from following where followed_id = ?";
+
+    private static final String FAN_OUT = "insert into feed_inbox (user_id, time_created, artwork_id, artist_id) "
+            + "select distinct follower_id, ?, ?, ? from following where followed_id = ? and follower_id is not null "
+            + "on conflict do nothing";
+
+    private static final String BACKFILL = "insert into feed_inbox (user_id, time_created, artwork_id, artist_id) "
+            + "select ?, a.time_created, a.id, a.artist_id from unnest(?) as p(artist_id) cross join lateral "
+            + "(select id, artist_id, time_created from artworks x where x.artist_id = p.artist_id and x.fanned_out "
+            + "order by x.time_created desc, x.id desc limit ?) a "
+            + "on conflict do nothing";
+
+    private static final String MARK = "update artworks set fanned_out = ? where id = ?";
+
+    private static final String PULLED_ARTISTS = "select distinct artist_id from artworks where fanned_out = false "
+            + "and artist_id is not null and time_created is not null";
+
+    private static final String FOLLOWED_PULLED = "select distinct followed_id from following "
+            + "where follower_id = ? and followed_id = any(?)";
+
+    private static final String COLUMNS = "select a.id, a.title, a.description, a.time_created, a.image_url, a.price, "
+            + "u.name, u.profile_pic_path ";
+
+    // The inbox may still hold the works of artists the user no longer follows
+    private static final String FROM_INBOX = COLUMNS + "from feed_inbox e join artworks a on a.id = e.artwork_id "
+            + "join users u on u.id = e.artist_id "
+            + "where e.user_id = ? and (e.time_created, e.artwork_id) < (?, ?) "
+            + "and exists (select 1 from following f where f.follower_id = e.user_id and f.followed_id = e.artist_id) "
+            + "order by e.time_created desc, e.artwork_id desc limit ?";
+
+    private static final String FROM_ARTISTS = COLUMNS + "from unnest(?) as p(artist_id) cross join lateral "
+            + "(select * from artworks x where x.artist_id = p.artist_id and x.fanned_out = false "
+            + "and (x.time_created, x.id) < (?, ?) order by x.time_created desc, x.id desc limit ?) a "
+            + "join users u on u.id = a.artist_id "
+            + "order by a.time_created desc, a.id desc limit ?";
+
+    // Newest first, then by id, the order of the pages
+    private static final Comparator<ArtworkDto> ORDER = Comparator
+            .comparing((ArtworkDto artwork) -> artwork.timeCreated)
+            .thenComparing(artwork -> artwork.id)
+            .reversed();
+
+    /**
+     * Position in a feed: the artworks strictly older than it come next.
+     */
+    public record Cursor(LocalDateTime timeCreated, long id) {
+        public static final Cursor START = new Cursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+    }
+
+    /**
+     * A page of a feed, {@code next} is null on the last one.
+     */
+    public record Page(List<ArtworkDto> items, Cursor next) {
+    }
+
+    @ConfigProperty(name = "copla.feed.fan-out-limit", defaultValue = "5000")
+    long fanOutLimit;
+
+    @ConfigProperty(name = "copla.feed.fan-out-batch-size", defaultValue = "100")
+    int fanOutBatchSize;
+
+    @ConfigProperty(name = "copla.feed.backfill-per-artist", defaultValue = "50")
+    int backfillPerArtist;
+
+    @ConfigProperty(name = "quarkus.hibernate-orm.database.generation", defaultValue = "none")
+    String schemaGeneration;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Set<Long> pulledArtists = ConcurrentHashMap.newKeySet();
+    private Counter inboxRows;
+    private Counter skipped;
+    private Counter backfilled;
+
+    @PostConstruct
+    void metrics() {
+        inboxRows = registry.counter("copla.feed.fan-out.rows");
+        skipped = registry.counter("copla.feed.fan-out.skipped");
+        backfilled = registry.counter("copla.feed.backfill.rows");
+    }
+
+    void init(@Observes StartupEvent event) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            if (schemaGeneration.startsWith("drop")) {
+                statement.execute("drop table if exists feed_inbox");
+            }
+            statement.execute("create table if not exists feed_inbox (user_id bigint not null, "
+                    + "time_created timestamp(6) not null, artwork_id bigint not null, artist_id bigint not null, "
+                    + "primary key (user_id, time_created, artwork_id))");
+            statement.execute("create index if not exists artworks_pending on artworks (id) where fanned_out is null");
+            statement.execute("create index if not exists artworks_pulled on artworks "
+                    + "(artist_id, time_created desc, id desc) where fanned_out = false");
+            statement.execute("create index if not exists artworks_fanned_out on artworks "
+                    + "(artist_id, time_created desc, id desc) where fanned_out");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to create the home feed tables", e);
+        }
+        refreshPulledArtists();
+    }
+
+    /**
+     * @param userId the reader
+     * @param after the cursor of the page, {@link Cursor#START} for the first one
+     * @param limit the size of the page
+     */
+    public Page page(long userId, Cursor after, int limit) {
+        try (Connection connection = dataSource.getConnection()) {
+            List<ArtworkDto> items = new ArrayList<>(2 * (limit + 1));
+            try (PreparedStatement inbox = connection.prepareStatement(FROM_INBOX)) {
+                inbox.setLong(1, userId);
+                inbox.setTimestamp(2, Timestamp.valueOf(after.timeCreated()));
+                inbox.setLong(3, after.id());
+                inbox.setInt(4, limit + 1);
+                read(inbox, items);
+            }
+
+            Long[] followedPulled = followedPulledArtists(connection, userId);
+            if (followedPulled.length > 0) {
+                try (PreparedStatement artists = connection.prepareStatement(FROM_ARTISTS)) {
+                    artists.setArray(1, connection.createArrayOf("bigint", followedPulled));
+                    artists.setTimestamp(2, Timestamp.valueOf(after.timeCreated()));
+                    artists.setLong(3, after.id());
+                    artists.setInt(4, limit + 1);
+                    artists.setInt(5, limit + 1);
+                    read(artists, items);
+                }
+                items.sort(ORDER);
+            }
+
+            if (items.size() <= limit) {
+                return new Page(items, null);
+            }
+            List<ArtworkDto> page = new ArrayList<>(items.subList(0, limit));
+            ArtworkDto last = page.get(limit - 1);
+            return new Page(page, new Cursor(last.timeCreated, last.id));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read the home feed of user " + userId, e);
+        }
+    }
+
+    private Long[] followedPulledArtists(Connection connection, long userId) throws SQLException {
+        if (pulledArtists.isEmpty()) {
+            return new Long[0];
+        }
+        Array candidates = connection.createArrayOf("bigint", pulledArtists.toArray(Long[]::new));
+        try (PreparedStatement statement = connection.prepareStatement(FOLLOWED_PULLED)) {
+            statement.setLong(1, userId);
+            statement.setArray(2, candidates);
+            List<Long> followed = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    followed.add(rows.getLong(1));
+                }
+            }
+            return followed.toArray(Long[]::new);
+        }
+    }
+
+    private static void read(PreparedStatement statement, List<ArtworkDto> items) throws SQLException {
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                ArtworkDto artwork = new ArtworkDto();
+                artwork.id = rows.getLong(1);
+                artwork.title = rows.getString(2);
+                artwork.description = rows.getString(3);
+                artwork.timeCreated = rows.getTimestamp(4).toLocalDateTime();
+                artwork.imageUrl = rows.getString(5);
+                artwork.price = rows.getObject(6, Double.class);
+                artwork.artistName = rows.getString(7);
+                artwork.artistProfilePicPath = rows.getString(8);
+                items.add(artwork);
+            }
+        }
+    }
+
+    /**
+     * Copies the new artworks to the inboxes of the followers of their artists, or leaves them to be merged on read.
+     */
+    @Scheduled(every = "${copla.feed.fan-out-interval:2s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void fanOut() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement pending = connection.prepareStatement(PENDING);
+                 PreparedStatement followers = connection.prepareStatement(FOLLOWERS);
+                 PreparedStatement fanOut = connection.prepareStatement(FAN_OUT);
+                 PreparedStatement mark = connection.prepareStatement(MARK)) {
+                pending.setInt(1, fanOutBatchSize);
+                try (ResultSet artworks = pending.executeQuery()) {
+                    while (artworks.next()) {
+                        long artworkId = artworks.getLong(1);
+                        long artistId = artworks.getLong(2);
+                        boolean orphan = artworks.wasNull();
+                        Timestamp timeCreated = artworks.getTimestamp(3);
+
+                        boolean inboxes = false;
+                        if (!orphan && timeCreated != null) {
+                            followers.setLong(1, artistId);
+                            try (ResultSet count = followers.executeQuery()) {
+                                count.next();
+                                inboxes = count.getLong(1) <= fanOutLimit;
+                            }
+                            if (inboxes) {
+                                fanOut.setTimestamp(1, timeCreated);
+                                fanOut.setLong(2, artworkId);
+                                fanOut.setLong(3, artistId);
+                                fanOut.setLong(4, artistId);
+                                inboxRows.increment(fanOut.executeUpdate());
+                            } else {
+                                pulledArtists.add(artistId);
+                                skipped.increment();
+                            }
+                        }
+                        mark.setBoolean(1, inboxes);
+                        mark.setLong(2, artworkId);
+                        mark.executeUpdate();
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to fan out the new artworks, retrying at the next run", e);
+        }
+    }
+
+    /**
+     * Copies the newest artworks already fanned out of the newly followed artists to the follower's inbox, the ones
+     * still pending reach it with the next fan-out.
+     */
+    void followed(@Observes(during = TransactionPhase.AFTER_SUCCESS) FollowsLinked event) {
+        if (event.followedIds().length == 0 || backfillPerArtist <= 0) {
+            return;
+        }
+        Long[] artists = Arrays.stream(event.followedIds()).boxed().toArray(Long[]::new);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement backfill = connection.prepareStatement(BACKFILL)) {
+            backfill.setLong(1, event.followerId());
+            backfill.setArray(2, connection.createArrayOf("bigint", artists));
+            backfill.setInt(3, backfillPerArtist);
+            backfilled.increment(backfill.executeUpdate());
+        } catch (SQLException e) {
+            log.warnf(e, "Failed to fill the inbox of user %d with the works of the artists they followed",
+                    event.followerId());
+        }
+    }
+
+    /**
+     * Picks up the artists whose works are merged on read that another node found.
+     */
+    @Scheduled(every = "${copla.feed.pulled-artists-refresh:1m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refreshPulledArtists() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet artists = statement.executeQuery(PULLED_ARTISTS)) {
+            while (artists.next()) {
+                pulledArtists.add(artists.getLong(1));
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to refresh the artists read on merge", e);
+        }
+    }
+}
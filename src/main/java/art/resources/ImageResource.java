@@ -1,15 +1,33 @@
 package art.resources;
 
+import art.concurrency.Bulkhead;
+import art.concurrency.DbPermit;
+import art.concurrency.RateLimited;
+import art.diagnostics.jfr.ImageServedEvent;
+import art.diagnostics.jfr.ImageUploadedEvent;
 import art.entities.User;
+import art.events.ArtistProfileChanged;
+import art.events.Outbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
 import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import org.jboss.resteasy.reactive.RestForm;
 import org.jboss.resteasy.reactive.multipart.FileUpload;
 
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
 import java.io.File;
@@ -17,17 +35,33 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
 import java.util.UUID;
 
 import org.jboss.logging.Logger;
 
 @Path("/images")
 @ApplicationScoped
+@RunOnVirtualThread
+@Bulkhead("uploads")
 public class ImageResource {
 
     @Inject
     SecurityIdentity identity;
 
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Tracer tracer;
+
+    @Inject
+    Event<ArtistProfileChanged> profileChanged;
+
+    @Inject
+    Outbox outbox;
+
     private static final Logger log = Logger.getLogger(ImageResource.class);
 
     private final String uploadDir;
@@ -44,16 +78,59 @@ public class ImageResource {
         }
     }
 
-    private Response uploadImage(FileUpload file, String fileName) {
+    private Counter bytesCounter(String name, String kind) {
+        return Counter.builder(name)
+                .baseUnit("bytes")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    private interface FileOperation<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Runs a disk operation in its own span, to tell the time spent on the file system from the rest of the request.
+     */
+    private <T> T traceFile(String operation, String fileName, FileOperation<T> io) throws IOException {
+        Span span = tracer.spanBuilder("file " + operation)
+                .setAttribute("file.name", fileName)
+                .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return io.run();
+        } catch (IOException | RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private Response uploadImage(FileUpload file, String fileName, String kind) {
+        ImageUploadedEvent event = new ImageUploadedEvent();
+        event.begin();
         try {
             java.nio.file.Path targetPath = Paths.get(uploadDir + fileName);
 
-            Files.copy(file.uploadedFile(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+            traceFile("write", fileName,
+                    () -> Files.copy(file.uploadedFile(), targetPath, StandardCopyOption.REPLACE_EXISTING));
+            bytesCounter("copla.images.uploaded", kind).increment(file.size());
+            event.success = true;
 
             String imageUrl = "/api/images/view/" + fileName;
             return Response.ok().entity("{\"url\":\"" + imageUrl + "\"}").build();
         } catch (IOException e) {
             return Response.serverError().entity("{\"error\":\"" + e.getMessage() + "\"}").build();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.fileName = fileName;
+                event.kind = kind;
+                event.bytes = file.size();
+                event.commit();
+            }
         }
     }
 
@@ -62,6 +139,8 @@ public class ImageResource {
     @Transactional
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     @Produces(MediaType.APPLICATION_JSON)
+    @RateLimited("uploads")
+    @DbPermit
     public Response uploadProfilePicture(@RestForm("file") FileUpload file) {
         //Don't allow anyone to upload files
         if (identity.isAnonymous()) {
@@ -71,7 +150,7 @@ public class ImageResource {
         String username = identity.getPrincipal().getName();
         String fileName = username + "_" + UUID.randomUUID() + "_" + file.fileName();
 
-        Response uploadResponse = uploadImage(file, fileName);
+        Response uploadResponse = uploadImage(file, fileName, "profilepic");
 
 
         log.info("Checking if image upload was successful " + uploadResponse.getStatus());
@@ -83,6 +162,8 @@ public class ImageResource {
                 log.info("User found: " + user.name);
                 user.profilePicPath = "/api/images/view/" + fileName;
                 user.persist();
+                outbox.append("profile-picture.changed", username, Map.of("path", user.profilePicPath));
+                profileChanged.fire(new ArtistProfileChanged(username));
             }
         }
 
@@ -93,6 +174,9 @@ public class ImageResource {
     @Path("/upload/userpic")
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     @Produces(MediaType.APPLICATION_JSON)
+    @RateLimited("uploads")
+    // Resolving the signed-in user reads the users table
+    @DbPermit
     public Response uploadUserPicture(@RestForm("file") FileUpload file) {
         //Don't allow anyone to upload files
         if (identity.isAnonymous()) {
@@ -102,12 +186,13 @@ public class ImageResource {
         System.out.println(file.fileName());
         String fileName = identity.getPrincipal().getName() + "_" + UUID.randomUUID() + "_" + file.fileName();
 
-        return uploadImage(file, fileName);
+        return uploadImage(file, fileName, "userpic");
     }
 
     @DELETE
     @Path("/delete/{fileName}")
     @Produces(MediaType.APPLICATION_JSON)
+    @DbPermit
     public Response deleteImage(@PathParam("fileName") String fileName) {
         if (identity.isAnonymous()) {
             return Response.status(Response.Status.UNAUTHORIZED).build();
@@ -135,7 +220,10 @@ public class ImageResource {
                         .build();
             }
 
-            Files.delete(imagePath);
+            traceFile("delete", actualFileName, () -> {
+                Files.delete(imagePath);
+                return null;
+            });
             return Response.ok()
                     .entity("{\"message\":\"Image deleted successfully\"}")
                     .build();
@@ -149,19 +237,49 @@ public class ImageResource {
     @GET
     @Path("/view/{fileName}")
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
-    public Response getImage(@PathParam("fileName") String fileName) {
+    @Bulkhead("images")
+    public Response getImage(@PathParam("fileName") String fileName, @Context Request request) {
+        ImageServedEvent event = new ImageServedEvent();
+        event.begin();
         try {
             java.nio.file.Path imagePath = Paths.get(uploadDir + fileName);
             if (!Files.exists(imagePath)) {
+                commitServed(event, fileName, 0, false, false);
                 return Response.status(Response.Status.NOT_FOUND).build();
             }
 
-            byte[] imageData = Files.readAllBytes(imagePath);
+            // Uploaded file names are unique, size and modification time identify the content
+            BasicFileAttributes attributes = Files.readAttributes(imagePath, BasicFileAttributes.class);
+            EntityTag etag = new EntityTag(Long.toHexString(attributes.size()) + "-"
+                    + Long.toHexString(attributes.lastModifiedTime().toMillis()));
+
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+            if (notModified != null) {
+                commitServed(event, fileName, 0, true, true);
+                return notModified.build();
+            }
+
+            byte[] imageData = traceFile("read", fileName, () -> Files.readAllBytes(imagePath));
+            bytesCounter("copla.images.served", "view").increment(imageData.length);
+            commitServed(event, fileName, imageData.length, false, true);
             return Response.ok(imageData)
+                    .tag(etag)
                     .header("Content-Disposition", "inline; filename=" + fileName)
                     .build();
         } catch (IOException e) {
             return Response.serverError().entity("{\"error\":\"" + e.getMessage() + "\"}").build();
         }
     }
+
+    private static void commitServed(ImageServedEvent event, String fileName, long bytes, boolean cacheHit,
+            boolean found) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.fileName = fileName;
+            event.bytes = bytes;
+            event.cacheHit = cacheHit;
+            event.found = found;
+            event.commit();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package art.resources;
+
+import io.quarkus.security.Authenticated;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+
+/**
+ * Server-sent events for the signed-in user. Runs on the event loop, a connected client costs no thread.
+ */
+@Path("/notifications")
+@Authenticated
+public class NotificationResource {
+
+    @Inject
+    SecurityIdentity identity;
+
+    @Inject
+    CommissionAlerts commissionAlerts;
+
+    /**
+     * A {@code commission-status} event, {@code {"artist": name, "open": true}}, each time an artist
+     * the user follows opens or closes commissions. Replaces polling the followings opened for commissions.
+     */
+    @GET
+    @Path("/commissions")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public Multi<OutboundSseEvent> commissionAlerts(@Context Sse sse) {
+        return commissionAlerts.stream(identity.getPrincipal().getName(), sse);
+    }
+}
@@ -0,0 +1,238 @@
+package art.resources;
+
+import art.dtos.ArtistDto;
+import art.dtos.CommissionCardDto;
+import art.dtos.CommissionCardElementDto;
+import art.dtos.SocialProfileDto;
+import art.dtos.TagDto;
+import art.dtos.UserDto;
+import io.quarkus.security.identity.CurrentIdentityAssociation;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.CookieParam;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking implementation of the hot read endpoints, on the reactive PostgreSQL client.
+ * Runs on the event loop, so the number of requests in flight is bounded by the connection pool
+ * and not by the worker threads. Answers with the same DTOs as {@link UserResource#getUser(String)}
+ * and {@link TagResource}, sharing the {@link ArtistProfileCache}; {@link ReactiveReadRoutes} sends the requests
+ * of those endpoints here when enabled. Writes stay on Hibernate ORM.
+ */
+@Path("/r")
+public class ReactiveReadResource {
+
+    private static final String USER = "select id, name, email, role, time_created, profile_pic_path, bio, verified, "
+            + "is_open_for_commissions, commission_card_id from users where name = $1 limit 1";
+
+    private static final String SOCIAL_PROFILES = "select id, platform, username, profile_url, is_verified "
+            + "from social_profiles where user_id = $1 order by id";
+
+    private static final String ARTIST_TAGS = "select t.name from users_tag ut join tag t on t.id = ut.related_tags_id "
+            + "where ut.artist_id = $1 order by t.id";
+
+    private static final String CARD = "select id, title, description from commission_card where id = $1";
+
+    private static final String CARD_ELEMENTS = "select e.id, e.title, e.description, e.price, i.image_url "
+            + "from commission_card_element e left join commission_card_element_images i on i.element_id = e.id "
+            + "where e.commission_card_id = $1 order by e.id";
+
+    private static final String TAGS = "select id, name, description, category, is_active from tag "
+            + "where is_active order by id";
+
+    private static final String TAGS_BY_CATEGORY = "select id, name, description, category, is_active from tag "
+            + "where category = $1 and is_active order by id";
+
+    @Inject
+    Pool client;
+
+    @Inject
+    ArtistProfileCache profileCache;
+
+    @Inject
+    CurrentIdentityAssociation identityAssociation;
+
+    @GET
+    @Path("/users/{username}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<Response> getUser(@PathParam("username") String username,
+            @CookieParam(ArtistProfileCache.SESSION_COOKIE) String session) {
+        // Resolving the identity can query the database, only do it when it decides between a stale entry and a load
+        if (session != null && profileCache.isStale(username)) {
+            return identityAssociation.getDeferredIdentity()
+                    .onItem().transformToUni(identity -> getUser(username,
+                            !identity.isAnonymous() && identity.getPrincipal().getName().equals(username)));
+        }
+        return getUser(username, false);
+    }
+
+    private Uni<Response> getUser(String username, boolean owner) {
+        byte[] cached = profileCache.get(username, () -> owner);
+        if (cached != null) {
+            return Uni.createFrom().item(Response.ok(cached, MediaType.APPLICATION_JSON_TYPE).build());
+        }
+        long token = profileCache.token();
+        return client.preparedQuery(USER).execute(Tuple.of(username))
+                .onItem().transformToUni(rows -> {
+                    if (rows.size() == 0) {
+                        return Uni.createFrom().item(errorResponse(Response.Status.NOT_FOUND, "User not found"));
+                    }
+                    Row row = rows.iterator().next();
+                    if (!"artist".equals(row.getString("role"))) {
+                        UserDto user = user(new UserDto(), row);
+                        return socialProfiles(user).map(ignored -> Response.ok(user).build());
+                    }
+
+                    ArtistDto artist = user(new ArtistDto(), row);
+                    artist.verified = Boolean.TRUE.equals(row.getBoolean("verified"));
+                    artist.isOpenForCommissions = Boolean.TRUE.equals(row.getBoolean("is_open_for_commissions"));
+                    Long cardId = row.getLong("commission_card_id");
+                    // Independent queries, each on its own pooled connection
+                    return Uni.combine().all().unis(socialProfiles(artist), relatedTags(artist), commissionCard(artist, cardId))
+                            .discardItems()
+                            .map(ignored -> {
+                                byte[] json = profileCache.serialize(artist);
+                                profileCache.put(username, json, token);
+                                return Response.ok(json, MediaType.APPLICATION_JSON_TYPE).build();
+                            });
+                });
+    }
+
+    @GET
+    @Path("/tags/all")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<Response> getAllTags(@QueryParam("category") String category) {
+        Uni<RowSet<Row>> rows = category != null && !category.isEmpty()
+                ? client.preparedQuery(TAGS_BY_CATEGORY).execute(Tuple.of(category))
+                : client.preparedQuery(TAGS).execute();
+        return rows.map(tags -> {
+            List<TagDto> tagDtos = new ArrayList<>(tags.size());
+            for (Row row : tags) {
+                TagDto tag = new TagDto();
+                tag.id = row.getLong("id");
+                tag.name = row.getString("name");
+                tag.description = row.getString("description");
+                tag.category = row.getString("category");
+                tag.isActive = Boolean.TRUE.equals(row.getBoolean("is_active"));
+                tagDtos.add(tag);
+            }
+            return Response.ok(tagDtos).build();
+        });
+    }
+
+    @GET
+    @Path("/tags/names")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<Response> getAllTagNames() {
+        return client.preparedQuery(TAGS).execute().map(tags -> {
+            List<String> tagNames = new ArrayList<>(tags.size());
+            for (Row row : tags) {
+                tagNames.add(row.getString("name"));
+            }
+            return Response.ok(tagNames).build();
+        });
+    }
+
+    private static <D extends UserDto> D user(D dto, Row row) {
+        dto.id = row.getLong("id");
+        dto.name = row.getString("name");
+        dto.email = row.getString("email");
+        dto.timeCreated = row.getLocalDateTime("time_created");
+        dto.profilePicPath = row.getString("profile_pic_path");
+        dto.bio = row.getString("bio");
+        dto.role = row.getString("role");
+        return dto;
+    }
+
+    private Uni<Void> socialProfiles(UserDto user) {
+        return client.preparedQuery(SOCIAL_PROFILES).execute(Tuple.of(user.id)).map(rows -> {
+            List<SocialProfileDto> profiles = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                SocialProfileDto profile = new SocialProfileDto();
+                profile.id = row.getLong("id");
+                profile.platform = row.getString("platform");
+                profile.username = row.getString("username");
+                profile.profileUrl = row.getString("profile_url");
+                profile.isVerified = Boolean.TRUE.equals(row.getBoolean("is_verified"));
+                profiles.add(profile);
+            }
+            user.socialProfiles = profiles.toArray(SocialProfileDto[]::new);
+            return null;
+        });
+    }
+
+    private Uni<Void> relatedTags(ArtistDto artist) {
+        return client.preparedQuery(ARTIST_TAGS).execute(Tuple.of(artist.id)).map(rows -> {
+            List<String> tags = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                tags.add(row.getString("name"));
+            }
+            artist.relatedTags = tags.toArray(String[]::new);
+            return null;
+        });
+    }
+
+    private Uni<Void> commissionCard(ArtistDto artist, Long cardId) {
+        if (cardId == null) {
+            return Uni.createFrom().voidItem();
+        }
+        Uni<RowSet<Row>> card = client.preparedQuery(CARD).execute(Tuple.of(cardId));
+        Uni<RowSet<Row>> elements = client.preparedQuery(CARD_ELEMENTS).execute(Tuple.of(cardId));
+        return Uni.combine().all().unis(card, elements).asTuple().map(result -> {
+            if (result.getItem1().size() == 0) {
+                return null;
+            }
+            Row cardRow = result.getItem1().iterator().next();
+            CommissionCardDto dto = new CommissionCardDto();
+            dto.id = cardRow.getLong("id");
+            dto.title = cardRow.getString("title");
+            dto.description = cardRow.getString("description");
+
+            // One row per example image, elements without any come with a null image_url
+            Map<Long, CommissionCardElementDto> byId = new LinkedHashMap<>();
+            for (Row row : result.getItem2()) {
+                CommissionCardElementDto element = byId.computeIfAbsent(row.getLong("id"), id -> {
+                    CommissionCardElementDto created = new CommissionCardElementDto();
+                    created.id = id;
+                    created.title = row.getString("title");
+                    created.description = row.getString("description");
+                    created.price = row.getDouble("price");
+                    created.exampleImageUrls = new ArrayList<>();
+                    return created;
+                });
+                String imageUrl = row.getString("image_url");
+                if (imageUrl != null) {
+                    element.exampleImageUrls.add(imageUrl);
+                }
+            }
+            dto.elements = new ArrayList<>(byId.values());
+
+            artist.commissionCard = dto;
+            artist.lowestPrice = dto.elements.stream()
+                    .filter(element -> element.price != null)
+                    .mapToDouble(element -> element.price)
+                    .min()
+                    .orElse(0.0);
+            return null;
+        });
+    }
+
+    private Response errorResponse(Response.Status status, String message) {
+        return Response.status(status).entity(Map.of("message", message)).build();
+    }
+}
@@ -0,0 +1,55 @@
+package art.resources;
+
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Sends {@code GET /api/users/{username}}, {@code /api/tags/all} and {@code /api/tags/names}
+ * to {@link ReactiveReadResource} when {@code copla.reactive-reads.enabled} is set.
+ * The clients keep the same URLs. It is a load test switch to compare both read paths and is off by default:
+ * the reactive path skips the replica routing, bulkheads, DB permits and query budget of the blocking one.
+ * {@code /api/r/*} is only reachable through this reroute, direct requests get a 404.
+ */
+@ApplicationScoped
+public class ReactiveReadRoutes {
+
+    // Ahead of the REST handler
+    static final int ROUTE_ORDER = 800;
+
+    // Marks a request rerouted here, the context data survives the reroute
+    private static final String REROUTED = "copla.reactive-read";
+
+    // The other GET endpoints of /users with a single segment are literal paths
+    private static final String USER_PATH = "/api/users/(?!me$|all$|artists$)[^/]+";
+
+    @ConfigProperty(name = "copla.reactive-reads.enabled", defaultValue = "false")
+    boolean enabled;
+
+    void init(@Observes Router router) {
+        router.routeWithRegex("/api/r/.*").order(ROUTE_ORDER - 1).handler(this::internalOnly);
+        if (!enabled) {
+            return;
+        }
+        router.getWithRegex(USER_PATH).order(ROUTE_ORDER).handler(this::reroute);
+        router.get("/api/tags/all").order(ROUTE_ORDER).handler(this::reroute);
+        router.get("/api/tags/names").order(ROUTE_ORDER).handler(this::reroute);
+    }
+
+    private void internalOnly(RoutingContext ctx) {
+        if (ctx.get(REROUTED) == null) {
+            ctx.fail(404);
+        } else {
+            ctx.next();
+        }
+    }
+
+    private void reroute(RoutingContext ctx) {
+        String query = ctx.request().query();
+        String path = "/api/r/" + ctx.request().path().substring("/api/".length());
+        ctx.put(REROUTED, Boolean.TRUE);
+        ctx.reroute(query != null ? path + "?" + query : path);
+    }
+}
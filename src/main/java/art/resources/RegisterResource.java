@@ -1,8 +1,16 @@
 package art.resources;
 
+import art.concurrency.Bulkhead;
+import art.concurrency.DbPermit;
+import art.concurrency.RateLimited;
 import art.dtos.UserRegistrationDto;
 import art.entities.User;
+import art.events.ArtistProfileChanged;
+import art.events.Outbox;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.POST;
@@ -15,12 +23,22 @@ import java.util.Map; // For simple JSON response
 
 @Path("/register") // Changed path
 @ApplicationScoped // Make it a bean
+@RunOnVirtualThread
+@Bulkhead("api")
+@DbPermit
 public class RegisterResource {
 
+    @Inject
+    Event<ArtistProfileChanged> profileChanged;
+
+    @Inject
+    Outbox outbox;
+
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @Transactional
+    @RateLimited("register")
     public Response registerUser(UserRegistrationDto registrationData) {
 
         if (registrationData.name == null || registrationData.name.isBlank() ||
@@ -46,6 +64,9 @@ public class RegisterResource {
                         registrationData.email,
                         false // Start as unverified artist
                 );
+                // A crawler may have been told earlier that there is no such artist
+                outbox.append("artist.registered", registrationData.name, Map.of());
+                profileChanged.fire(new ArtistProfileChanged(registrationData.name));
             } else {
                 // Create regular user account
                 User.add(registrationData.name, registrationData.password, registrationData.email);
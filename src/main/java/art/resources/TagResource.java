@@ -2,8 +2,12 @@ package art.resources;
 
 import java.util.List;
 
+import art.concurrency.Bulkhead;
+import art.datasource.ReplicaReads;
+import art.diagnostics.DtoMapping;
 import art.dtos.TagDto;
 import art.entities.Tag;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -12,8 +16,13 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
 @Path("/tags")
+@Bulkhead("api")
+@ReplicaReads
 public class TagResource {
 
+    @Inject
+    DtoMapping dtoMapping;
+
     @GET
     @Path("/all")
     @Produces(MediaType.APPLICATION_JSON)
@@ -26,9 +35,7 @@ public class TagResource {
             tags = Tag.findAllActiveTags();
         }
 
-        var tagDtos = tags.stream()
-                .map(TagDto::new)
-                .toList();
+        var tagDtos = dtoMapping.mapAll(TagDto.class, tags, TagDto::new);
 
         return Response.ok(tagDtos).build();
     }
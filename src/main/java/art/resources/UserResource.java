@@ -1,6 +1,17 @@
 package art.resources;
 
+import art.concurrency.Bulkhead;
+import art.concurrency.DbPermit;
+import art.concurrency.RateLimited;
+import art.concurrency.SingleFlight;
+import art.concurrency.SingleFlights;
+import art.datasource.ReplicaReads;
+import art.datasource.ReplicaRouting;
+import art.diagnostics.DtoMapping;
+import art.diagnostics.QueryBudget;
+import art.diagnostics.jfr.FollowingSyncEvent;
 import art.dtos.ArtistDto;
+import art.dtos.ArtistExportDto;
 import art.dtos.CommissionCardDto;
 import art.dtos.CommissionCardElementDto;
 import art.dtos.FollowingDto;
@@ -13,25 +24,83 @@ import art.entities.CommissionCardElement;
 import art.entities.SocialProfile;
 import art.entities.Tag;
 import art.entities.User;
+import art.graph.FollowGraph;
+import art.events.ArtistProfileChanged;
+import art.events.FollowsLinked;
+import art.events.Outbox;
+import art.webui.StaticAssets;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.runtime.annotations.RegisterForReflection;
+import io.quarkus.security.Authenticated;
 import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 @Path("/users")
+@RunOnVirtualThread
+@Bulkhead("api")
+@DbPermit
+@ReplicaReads
 public class UserResource {
 
     @Inject
     SecurityIdentity identity;
 
+    @Inject
+    DtoMapping dtoMapping;
+
+    @Inject
+    EntityStreams entityStreams;
+
+    @Inject
+    Event<ArtistProfileChanged> profileChanged;
+
+    @Inject
+    Outbox outbox;
+
+    @Inject
+    Event<FollowsLinked> followsLinked;
+
+    @Inject
+    FollowGraph followGraph;
+
+    @Inject
+    ArtistProfileCache profileCache;
+
+    @Inject
+    ReplicaRouting replicaRouting;
+
+    @Inject
+    SingleFlights singleFlights;
+
+    /**
+     * Stream the list endpoints from a database cursor instead of building the whole response in memory.
+     */
+    @ConfigProperty(name = "copla.streaming.enabled", defaultValue = "true")
+    boolean streaming;
+
+    /**
+     * How far before the start of an export its watermark is set, to cover the transactions still running then.
+     */
+    @ConfigProperty(name = "copla.export.watermark-lag", defaultValue = "1m")
+    Duration exportWatermarkLag;
+
     /**
      * Validates if a user exists by username.
      * @param username the username to check
@@ -87,6 +156,18 @@ public class UserResource {
         return null;
     }
 
+    /**
+     * Records the change in the outbox and notifies the caches of rendered profiles,
+     * they drop the profile once the transaction commits.
+     * @param username the account whose public profile changed
+     * @param change the type of the outbox event
+     * @param details the payload of the outbox event
+     */
+    private void profileChanged(String username, String change, Map<String, ?> details) {
+        outbox.append(change, username, details);
+        profileChanged.fire(new ArtistProfileChanged(username));
+    }
+
     /**
      * Creates a standardized error response.
      * @param status the HTTP status code
@@ -114,9 +195,10 @@ public class UserResource {
     @Path("/all")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getAllUsers() {
-        var users = User.findAllUsers().stream()
-                .map(UserDto::new)
-                .toList();
+        if (streaming) {
+            return Response.ok(entityStreams.<User, UserDto>jsonArray(User::findAll, UserDto.class, UserDto::new)).build();
+        }
+        var users = dtoMapping.mapAll(UserDto.class, User.findAllUsers(), UserDto::new);
         return Response.ok(users).build();
     }
 
@@ -136,56 +218,135 @@ public class UserResource {
     public Response getArtists(@QueryParam("verified") Boolean verified,
             @QueryParam("openForCommissions") Boolean openForCommissions) {
 
-        List<Artist> artists;
+        if (streaming) {
+            return Response.ok(entityStreams.jsonArray(() -> artistQuery(verified, openForCommissions),
+                    ArtistDto.class, ArtistDto::new)).build();
+        }
+
+        List<Artist> artists = artistQuery(verified, openForCommissions).list();
+
+        var artistDtos = dtoMapping.mapAll(ArtistDto.class, artists, ArtistDto::new);
+
+        return Response.ok(artistDtos).build();
+    }
+
+    /**
+     * Exports the artist directory as newline delimited JSON, one artist per line with its tags,
+     * commission status and lowest price. The response carries an {@code X-Copla-Export-Watermark}
+     * to pass as {@code updatedSince} on the next export to only get the artists changed since.
+     * @param updatedSince ISO-8601 local date-time, only export the artists changed since then
+     * @param acceptEncoding the body is gzipped when the client accepts it
+     * @return Response streaming the artists
+     */
+    @GET
+    @Path("/artists/export")
+    @Authenticated
+    @Produces("application/x-ndjson")
+    public Response exportArtists(@QueryParam("updatedSince") String updatedSince,
+            @HeaderParam("Accept-Encoding") String acceptEncoding) {
+        LocalDateTime since = null;
+        if (updatedSince != null && !updatedSince.isBlank()) {
+            try {
+                since = LocalDateTime.parse(updatedSince);
+            } catch (DateTimeParseException e) {
+                return errorResponse(Response.Status.BAD_REQUEST,
+                        "updatedSince must be an ISO-8601 date-time such as 2025-01-31T12:00:00");
+            }
+        }
+
+        // Rows written by transactions that commit after the snapshot can carry an earlier timestamp,
+        // the next export overlaps this one by the lag to pick them up
+        LocalDateTime watermark = LocalDateTime.now().minus(exportWatermarkLag);
+        boolean gzip = StaticAssets.accepts(acceptEncoding, "gzip");
 
+        LocalDateTime from = since;
+        Response.ResponseBuilder response = Response.ok(entityStreams.ndjson(() -> Artist.findUpdatedSince(from),
+                        ArtistExportDto.class, ArtistExportDto::new, gzip))
+                .header("X-Copla-Export-Watermark", watermark.toString())
+                .header("Vary", "Accept-Encoding");
+        if (gzip) {
+            response.header("Content-Encoding", "gzip");
+        }
+        return response.build();
+    }
+
+    /**
+     * Query of the artist directory with its optional filters.
+     * @param verified only the verified (or unverified) artists, if not null
+     * @param openForCommissions only the artists open (or closed) for commissions, if not null
+     * @return the query, not yet executed
+     */
+    private PanacheQuery<Artist> artistQuery(Boolean verified, Boolean openForCommissions) {
         if (verified != null && openForCommissions != null) {
-            artists = Artist.list("verified = ?1 and isOpenForCommissions = ?2", verified, openForCommissions);
+            return Artist.find("verified = ?1 and isOpenForCommissions = ?2", verified, openForCommissions);
         } else if (verified != null) {
-            artists = verified ? Artist.findAllVerifiedArtists() : Artist.list("verified", false);
+            return Artist.find("verified", verified);
         } else if (openForCommissions != null) {
-            artists = Artist.list("isOpenForCommissions", openForCommissions);
-        } else {
-            artists = Artist.findAllArtists();
+            return Artist.find("isOpenForCommissions", openForCommissions);
         }
-
-        var artistDtos = artists.stream()
-                .map(ArtistDto::new)
-                .toList();
-
-        return Response.ok(artistDtos).build();
+        return Artist.findAll();
     }
 
     @GET
     @Path("/{username}")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getUser(@PathParam("username") String username) {
-        Response validation = validateUserExists(username);
-        if (validation != null) return validation;
+        byte[] cached = profileCache.get(username,
+                () -> !identity.isAnonymous() && identity.getPrincipal().getName().equals(username));
+        if (cached != null) {
+            return Response.ok(cached, MediaType.APPLICATION_JSON_TYPE).build();
+        }
+        // Concurrent misses share one load, a read from the replica can't answer a request routed to the primary
+        String key = (replicaRouting.replica() ? "replica:" : "primary:") + username;
+        SingleFlight<String, Object> profiles = singleFlights.named("profile");
+        Object profile = profiles.execute(key, () -> loadProfile(username));
+        if (profile == null) {
+            return errorResponse(Response.Status.NOT_FOUND, "User not found");
+        }
+        return Response.ok(profile, MediaType.APPLICATION_JSON_TYPE).build();
+    }
 
+    /**
+     * @return the serialized profile of an artist, the profile of any other user, or null if there is no such user
+     */
+    private Object loadProfile(String username) {
+        long token = replicaRouting.replica() ? -1 : profileCache.token();
         User user = User.findByUsername(username);
+        if (user == null) {
+            return null;
+        }
 
         if ("artist".equals(user.role)) {
             Artist artist = (Artist) user;
-            ArtistDto artistDto = new ArtistDto(artist);
-            return Response.ok(artistDto).build();
-        } else {
-            UserDto userDto = new UserDto(user);
-            return Response.ok(userDto).build();
+            ArtistDto artistDto = dtoMapping.map(ArtistDto.class, () -> new ArtistDto(artist));
+            byte[] json = profileCache.serialize(artistDto);
+            profileCache.put(username, json, token);
+            return json;
         }
+        return dtoMapping.map(UserDto.class, () -> new UserDto(user));
     }
 
     @GET
     @Path("/{username}/commission-card")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getCommissionCard(@PathParam("username") String username) {
-        Response validation = validateArtistExists(username);
-        if (validation != null) return validation;
-
-        Artist artist = (Artist) User.findByUsername(username);
-        validation = validateCommissionCardExists(artist);
-        if (validation != null) return validation;
-
-        return Response.ok(new CommissionCardDto(artist.commissionCard)).build();
+        String key = (replicaRouting.replica() ? "replica:" : "primary:") + username;
+        SingleFlight<String, Object> cards = singleFlights.named("commission-card");
+        // The DTO, or the error response when there is none, built once and shared by the coalesced requests
+        Object card = cards.execute(key, () -> {
+            Response validation = validateArtistExists(username);
+            if (validation != null) return validation.getEntity();
+
+            Artist artist = (Artist) User.findByUsername(username);
+            validation = validateCommissionCardExists(artist);
+            if (validation != null) return validation.getEntity();
+
+            return dtoMapping.map(CommissionCardDto.class, () -> new CommissionCardDto(artist.commissionCard));
+        });
+        if (card instanceof CommissionCardDto) {
+            return Response.ok(card).build();
+        }
+        return Response.status(Response.Status.NOT_FOUND).entity(card).build();
     }
 
     @POST
@@ -216,6 +377,7 @@ public class UserResource {
 
         commissionCard.persist();
         artist.persist();
+        profileChanged(username, "commission-card.created", Map.of("cardId", commissionCard.id));
 
         return Response.status(Response.Status.CREATED)
                 .entity(new CommissionCardDto(commissionCard))
@@ -227,6 +389,7 @@ public class UserResource {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @Transactional
+    @RateLimited("card-edits")
     public Response createCommissionCardElement(@PathParam("username") String username, CommissionCardElementDto elementDto) {
         Response validation = validateArtistExists(username);
         if (validation != null) return validation;
@@ -256,7 +419,9 @@ public class UserResource {
 
         artist.commissionCard.addElement(element);
         element.persist();
+        artist.touch();
         artist.persist();
+        profileChanged(username, "commission-card.element-added", Map.of("elementId", element.id));
 
         return Response.status(Response.Status.CREATED)
                 .entity(new CommissionCardElementDto(element))
@@ -268,6 +433,7 @@ public class UserResource {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @Transactional
+    @RateLimited("card-edits")
     public Response updateCommissionCardElement(
             @PathParam("username") String username,
             @PathParam("elementId") Long elementId,
@@ -314,6 +480,9 @@ public class UserResource {
         }
 
         element.persist();
+        artist.touch();
+        profileChanged(username, "commission-card.element-updated",
+                Map.of("elementId", elementId, "fields", List.copyOf(updates.keySet())));
 
         return successResponse("Commission card element updated successfully");
     }
@@ -322,6 +491,7 @@ public class UserResource {
     @Path("/{username}/commission-card/elements/{elementId}")
     @Produces(MediaType.APPLICATION_JSON)
     @Transactional
+    @RateLimited("card-edits")
     public Response deleteCommissionCardElement(
             @PathParam("username") String username,
             @PathParam("elementId") Long elementId) {
@@ -343,7 +513,9 @@ public class UserResource {
 
         artist.commissionCard.removeElement(element);
         element.delete();
+        artist.touch();
         artist.persist();
+        profileChanged(username, "commission-card.element-removed", Map.of("elementId", elementId));
 
         return successResponse("Commission card element deleted successfully");
     }
@@ -365,6 +537,7 @@ public class UserResource {
 
         artist.commissionCard = null;
         artist.persist();
+        profileChanged(username, "commission-card.deleted", Map.of());
 
         return successResponse("Commission card deleted successfully");
     }
@@ -391,6 +564,8 @@ public class UserResource {
 
         user.socialProfiles.add(socialProfile);
         socialProfile.persist();
+        user.touch();
+        profileChanged(username, "social.added", Map.of("platform", "bluesky", "verified", socialProfile.isVerified));
 
         if ("artist".equals(user.role) && socialProfileDto.isVerified) {
             Artist artist = (Artist) user;
@@ -444,6 +619,7 @@ public class UserResource {
         blueskyProfile.displayName = linkRequest.blueskyDisplayName;
         blueskyProfile.isVerified = true;
 
+        user.touch();
         user.persist();
 
         if ("artist".equals(user.role)) {
@@ -451,6 +627,8 @@ public class UserResource {
             artist.verified = true;
             artist.persist();
         }
+        profileChanged(username, "social.bluesky-linked",
+                Collections.singletonMap("handle", linkRequest.blueskyHandle));
 
         return Response.ok(new SuccessResponse("Bluesky account linked successfully")).build();
     }
@@ -485,7 +663,9 @@ public class UserResource {
 
         user.socialProfiles.remove(profileToRemove);
         SocialProfile.delete("id", profileToRemove.id);
+        user.touch();
         user.persist();
+        profileChanged(username, "social.removed", Map.of("platform", platform, "account", accountUsername));
 
         if ("artist".equals(user.role) && wasVerifiedBluesky) {
             Artist artist = (Artist) user;
@@ -525,6 +705,7 @@ public class UserResource {
 
         Artist artist = (Artist) User.findByUsername(username);
         artist.addTag(tag);
+        profileChanged(username, "tags.added", Map.of("tag", tag.name));
 
         return successResponse("Tag '" + tagName + "' added successfully");
     }
@@ -551,6 +732,7 @@ public class UserResource {
             return errorResponse(Response.Status.NOT_FOUND, "Tag '" + tagName + "' not associated with this artist");
         }
         artist.removeTag(tag);
+        profileChanged(username, "tags.removed", Map.of("tag", tag.name));
 
         return successResponse("Tag '" + tagName + "' removed successfully");
     }
@@ -573,7 +755,11 @@ public class UserResource {
         }
 
         Artist artist = (Artist) User.findByUsername(username);
+        boolean toggled = artist.isOpenForCommissions != isOpen;
         artist.setOpenForCommissions(isOpen);
+        // The followers are alerted of toggles from the outbox, by art.events.CommissionStatusRelay
+        profileChanged(username, "commission-status.changed",
+                Map.of("open", isOpen, "toggled", toggled, "artistId", artist.id));
 
         return Response.ok(Map.of(
                 "message", "Commission status updated successfully",
@@ -592,6 +778,13 @@ public class UserResource {
         if (validation != null) return validation;
 
         User user = User.findByUsername(username);
+
+        if (streaming) {
+            Long followerId = user.id;
+            boolean open = openOnly != null && openOnly;
+            return Response.ok(entityStreams.jsonArray(() -> Following.findByFollowerId(followerId, open),
+                    FollowingDto.class, FollowingDto::new)).build();
+        }
         
         List<Following> followingList;
         if (openOnly != null && openOnly) {
@@ -600,9 +793,7 @@ public class UserResource {
             followingList = Following.findByFollower(user);
         }
         
-        var followingDtos = followingList.stream()
-                .map(FollowingDto::new)
-                .toList();
+        var followingDtos = dtoMapping.mapAll(FollowingDto.class, followingList, FollowingDto::new);
         
         return Response.ok(followingDtos).build();
     }
@@ -612,6 +803,9 @@ public class UserResource {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @Transactional
+    @QueryBudget(statements = 500, timeMs = 2000)
+    @Bulkhead("sync")
+    @RateLimited("sync")
     public Response syncBlueskyFollowing(@PathParam("username") String username, 
                                        BlueskyFollowingRequest request) {
         Response validation = validateUserExists(username);
@@ -626,19 +820,30 @@ public class UserResource {
             return errorResponse(Response.Status.BAD_REQUEST, "No following data provided");
         }
         
+        FollowingSyncEvent event = new FollowingSyncEvent();
+        event.begin();
         int syncedCount = 0;
         int linkedCount = 0;
+        long[] linked = new long[request.following.size()];
         
         for (BlueskyFollowingRequest.BlueskyUser followedUser : request.following) {
-            Following.createOrUpdate(user, followedUser.handle, followedUser.did, followedUser.displayName);
+            Following following = Following.createOrUpdate(user, followedUser.handle, followedUser.did, followedUser.displayName);
             syncedCount++;
             
             // Check if this created a new link
-            Following following = Following.findByFollowerAndHandle(user, followedUser.handle);
-            if (following != null && following.followed != null) {
-                linkedCount++;
+            if (following.followed != null) {
+                linked[linkedCount++] = following.followed.id;
             }
         }
+        followsLinked.fire(new FollowsLinked(user.id, Arrays.copyOf(linked, linkedCount)));
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.username = username;
+            event.batchSize = syncedCount;
+            event.linked = linkedCount;
+            event.commit();
+        }
         
         return Response.ok(Map.of(
             "message", "Bluesky following synced successfully",
@@ -647,6 +852,40 @@ public class UserResource {
         )).build();
     }
 
+    @GET
+    @Path("/{username}/followers")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getFollowers(@PathParam("username") String username) {
+        Response validation = validateUserExists(username);
+        if (validation != null) return validation;
+
+        validation = validateOwnership(username);
+        if (validation != null) return validation;
+
+        User user = User.findByUsername(username);
+        List<String> followers = followGraph.covers(user.id)
+                ? User.findNamesByIds(followGraph.followers(user.id))
+                : Following.findFollowerNames(user.id);
+        return Response.ok(followers).build();
+    }
+
+    @GET
+    @Path("/{username}/mutuals")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getMutuals(@PathParam("username") String username) {
+        Response validation = validateUserExists(username);
+        if (validation != null) return validation;
+
+        validation = validateOwnership(username);
+        if (validation != null) return validation;
+
+        User user = User.findByUsername(username);
+        List<String> mutuals = followGraph.covers(user.id)
+                ? User.findNamesByIds(followGraph.mutuals(user.id))
+                : Following.findMutualNames(user.id);
+        return Response.ok(mutuals).build();
+    }
+
     @GET
     @Path("/artists/following")
     @Produces(MediaType.APPLICATION_JSON)
@@ -674,9 +913,7 @@ public class UserResource {
                 })
                 .toList();
 
-        var artistDtos = followedArtists.stream()
-                .map(ArtistDto::new)
-                .toList();
+        var artistDtos = dtoMapping.mapAll(ArtistDto.class, followedArtists, ArtistDto::new);
 
         return Response.ok(artistDtos).build();
     }
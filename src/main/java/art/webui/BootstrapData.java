@@ -0,0 +1,65 @@
+package art.webui;
+
+import art.diagnostics.DtoMapping;
+import art.dtos.ArtistDto;
+import art.entities.Artist;
+import art.entities.Tag;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.cache.CacheResult;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.UncheckedIOException;
+
+/**
+ * The shared parts of the initial state inlined in the SPA shell, cached as JSON fragments
+ * that are safe to embed in a {@code <script>} element, so that assembling the shell is a string concatenation.
+ * The caches expire after {@code quarkus.cache.caffeine."bootstrap-*".expire-after-write}.
+ */
+@ApplicationScoped
+public class BootstrapData {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    DtoMapping dtoMapping;
+
+    @ConfigProperty(name = "copla.bootstrap.directory-page-size", defaultValue = "24")
+    int directoryPageSize;
+
+    /**
+     * @return the names of the active tags, as returned by {@code GET /api/tags/names}
+     */
+    @CacheResult(cacheName = "bootstrap-tag-names")
+    @Transactional
+    public String tagNamesJson() {
+        return toScriptJson(Tag.getAllTagNames());
+    }
+
+    /**
+     * @return the first page of the artist directory, as {@code GET /api/users/artists} returns it
+     */
+    @CacheResult(cacheName = "bootstrap-directory")
+    @Transactional
+    public String directoryFirstPageJson() {
+        var artists = Artist.<Artist>findAll(Sort.by("id")).page(0, directoryPageSize).list();
+        return toScriptJson(dtoMapping.mapAll(ArtistDto.class, artists, ArtistDto::new));
+    }
+
+    /**
+     * Serializes a value as JSON that cannot close the script element it is embedded in.
+     */
+    public String toScriptJson(Object value) {
+        try {
+            // "<" only appears inside strings, where its escape has the same meaning
+            return objectMapper.writeValueAsString(value).replace("<", "\\u003c");
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
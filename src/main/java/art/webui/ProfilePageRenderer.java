@@ -0,0 +1,153 @@
+package art.webui;
+
+import art.dtos.ArtistDto;
+import art.dtos.CommissionCardElementDto;
+import art.entities.Artist;
+import art.entities.User;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Renders the public profile of an artist as a static HTML page with OpenGraph tags,
+ * for crawlers and link previews that don't run the SPA.
+ */
+@ApplicationScoped
+public class ProfilePageRenderer {
+
+    @ConfigProperty(name = "copla.public-url", defaultValue = "https://copla.zapto.org")
+    String publicUrl;
+
+    /**
+     * @param username name of the artist
+     * @return the page, or empty if there is no artist with this name
+     */
+    @Transactional
+    public Optional<String> render(String username) {
+        User user = User.findByUsername(username);
+        if (!(user instanceof Artist artist)) {
+            return Optional.empty();
+        }
+        return Optional.of(html(new ArtistDto(artist)));
+    }
+
+    String html(ArtistDto artist) {
+        String url = publicUrl + "/users/" + urlSegment(artist.name);
+        String description = description(artist);
+
+        StringBuilder html = new StringBuilder(4096);
+        html.append("<!doctype html>\n<html lang=\"en\">\n<head>\n<meta charset=\"UTF-8\">\n");
+        html.append("<title>").append(escape(artist.name)).append(" - Copla</title>\n");
+        meta(html, "name", "description", description);
+        html.append("<link rel=\"canonical\" href=\"").append(escape(url)).append("\">\n");
+        meta(html, "property", "og:type", "profile");
+        meta(html, "property", "og:site_name", "Copla");
+        meta(html, "property", "og:title", artist.name + " on Copla");
+        meta(html, "property", "og:description", description);
+        meta(html, "property", "og:url", url);
+        meta(html, "property", "profile:username", artist.name);
+        if (artist.profilePicPath != null && !artist.profilePicPath.isBlank()) {
+            String image = artist.profilePicPath.startsWith("http") ? artist.profilePicPath : publicUrl + artist.profilePicPath;
+            meta(html, "property", "og:image", image);
+            meta(html, "property", "og:image:alt", "Profile picture of " + artist.name);
+        }
+        meta(html, "name", "twitter:card", "summary");
+        html.append("</head>\n<body>\n<main>\n");
+
+        html.append("<h1>").append(escape(artist.name)).append("</h1>\n");
+        if (artist.bio != null && !artist.bio.isBlank()) {
+            html.append("<p>").append(escape(artist.bio)).append("</p>\n");
+        }
+        html.append("<p>").append(artist.isOpenForCommissions ? "Open for commissions" : "Commissions closed");
+        if (artist.verified) {
+            html.append(" &middot; Verified artist");
+        }
+        html.append("</p>\n");
+        if (artist.relatedTags.length > 0) {
+            html.append("<ul>\n");
+            for (String tag : artist.relatedTags) {
+                html.append("<li>").append(escape(tag)).append("</li>\n");
+            }
+            html.append("</ul>\n");
+        }
+
+        if (artist.commissionCard != null) {
+            html.append("<section>\n<h2>").append(escape(artist.commissionCard.title)).append("</h2>\n");
+            if (artist.commissionCard.description != null) {
+                html.append("<p>").append(escape(artist.commissionCard.description)).append("</p>\n");
+            }
+            for (CommissionCardElementDto element : artist.commissionCard.elements) {
+                html.append("<article>\n<h3>").append(escape(element.title)).append("</h3>\n");
+                if (element.description != null) {
+                    html.append("<p>").append(escape(element.description)).append("</p>\n");
+                }
+                if (element.price != null) {
+                    html.append("<p>").append(price(element.price)).append("</p>\n");
+                }
+                html.append("</article>\n");
+            }
+            html.append("</section>\n");
+        }
+
+        html.append("<p><a href=\"").append(escape(url)).append("\">View ").append(escape(artist.name))
+                .append(" on Copla</a></p>\n</main>\n</body>\n</html>\n");
+        return html.toString();
+    }
+
+    private static String description(ArtistDto artist) {
+        StringBuilder description = new StringBuilder();
+        if (artist.bio != null && !artist.bio.isBlank()) {
+            description.append(artist.bio.strip()).append(' ');
+        }
+        if (artist.isOpenForCommissions) {
+            description.append("Open for commissions");
+            if (artist.lowestPrice > 0) {
+                description.append(", from ").append(price(artist.lowestPrice));
+            }
+            description.append('.');
+        } else {
+            description.append("Commissions closed.");
+        }
+        if (artist.relatedTags.length > 0) {
+            description.append(' ').append(String.join(", ", artist.relatedTags)).append('.');
+        }
+        return description.toString();
+    }
+
+    private static void meta(StringBuilder html, String attribute, String name, String content) {
+        html.append("<meta ").append(attribute).append("=\"").append(name).append("\" content=\"")
+                .append(escape(content)).append("\">\n");
+    }
+
+    private static String price(double price) {
+        return String.format(Locale.ROOT, "$%.2f", price);
+    }
+
+    private static String urlSegment(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
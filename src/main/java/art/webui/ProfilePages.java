@@ -0,0 +1,92 @@
+package art.webui;
+
+import art.events.ArtistProfileChanged;
+import art.events.LocalCachesStale;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Answers crawlers and link preview fetchers asking for a profile page ({@code /users/{username}})
+ * with the prerendered page of {@link ProfilePageRenderer} instead of the empty SPA shell.
+ * Pages are kept in the {@code artist-profile-pages} cache, a hit is sent from the event loop
+ * without touching the database, and {@link ArtistProfileChanged} drops the page of the artist once committed.
+ * Browsers, and names that aren't artists, fall through to the SPA.
+ */
+@ApplicationScoped
+public class ProfilePages {
+
+    private static final Logger log = Logger.getLogger(ProfilePages.class);
+
+    static final String CACHE_NAME = "artist-profile-pages";
+
+    // Bluesky's preview service is "Cardyb", most of the others call themselves bots
+    private static final Pattern CRAWLER = Pattern.compile(
+            "bot|crawler|spider|preview|cardyb|facebookexternalhit|embedly|mastodon|pleroma|misskey|slack|discord"
+                    + "|telegram|whatsapp|skype|vkshare|pinterest",
+            Pattern.CASE_INSENSITIVE);
+
+    @Inject
+    ProfilePageRenderer renderer;
+
+    @Inject
+    @CacheName(CACHE_NAME)
+    Cache cache;
+
+    void init(@Observes Router router) {
+        // Ahead of the SPA shell and Quinoa
+        router.get("/users/:username").order(StaticAssets.ROUTE_ORDER - 1).handler(this::serve);
+    }
+
+    private void serve(RoutingContext ctx) {
+        String userAgent = ctx.request().getHeader(HttpHeaders.USER_AGENT);
+        if (userAgent == null || !CRAWLER.matcher(userAgent).find()) {
+            ctx.next();
+            return;
+        }
+
+        Context context = Vertx.currentContext();
+        cache.<String, Optional<String>>getAsync(ctx.pathParam("username"), username -> Uni.createFrom()
+                        .item(() -> renderer.render(username))
+                        .runSubscriptionOn(Infrastructure.getDefaultWorkerPool()))
+                .emitOn(command -> context.runOnContext(ignored -> command.run()))
+                .subscribe().with(
+                        page -> {
+                            if (page.isEmpty()) {
+                                ctx.next();
+                                return;
+                            }
+                            ctx.response()
+                                    .putHeader(HttpHeaders.CONTENT_TYPE, "text/html; charset=utf-8")
+                                    .putHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=300")
+                                    .putHeader(HttpHeaders.VARY, HttpHeaders.USER_AGENT)
+                                    .end(page.get());
+                        },
+                        failure -> {
+                            log.warn("Failed to render a profile page, falling back to the SPA", failure);
+                            ctx.next();
+                        });
+    }
+
+    void invalidate(@Observes(during = TransactionPhase.AFTER_SUCCESS) ArtistProfileChanged event) {
+        cache.invalidate(event.username()).await().indefinitely();
+    }
+
+    void resync(@Observes LocalCachesStale event) {
+        cache.invalidateAll().await().indefinitely();
+    }
+}
@@ -0,0 +1,126 @@
+package art.webui;
+
+import io.quarkus.security.identity.SecurityIdentity;
+import io.quarkus.vertx.http.runtime.security.QuarkusHttpUser;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Serves the SPA shell ({@code index.html} of the web UI build) with the initial state inlined in a
+ * {@code <script id="copla-bootstrap" type="application/json">} element: the current user, the tag names
+ * and the first page of the artist directory, which the pages would otherwise fetch one after the other.
+ * The three parts are resolved in parallel, the shared ones from {@link BootstrapData} caches.
+ * If one of them fails the plain shell is sent and the pages fetch their data as usual.
+ * <p>
+ * Only active with {@code copla.webui.dist-dir}, like {@link StaticAssets}.
+ */
+@ApplicationScoped
+public class SpaShell {
+
+    private static final Logger log = Logger.getLogger(SpaShell.class);
+
+    @Inject
+    BootstrapData bootstrapData;
+
+    @ConfigProperty(name = "copla.webui.dist-dir")
+    Optional<String> distDir;
+
+    @ConfigProperty(name = "copla.bootstrap.enabled", defaultValue = "true")
+    boolean enabled;
+
+    private String head;
+    private String tail;
+
+    void init(@Observes Router router) {
+        if (distDir.isEmpty() || !enabled) {
+            return;
+        }
+        Path index = Path.of(distDir.get(), "index.html");
+        String html;
+        try {
+            html = Files.readString(index);
+        } catch (IOException e) {
+            log.warnf("No SPA shell at %s, leaving it to Quinoa", index);
+            return;
+        }
+        int headEnd = html.indexOf("</head>");
+        if (headEnd < 0) {
+            log.warnf("No </head> in %s, leaving it to Quinoa", index);
+            return;
+        }
+        head = html.substring(0, headEnd);
+        tail = html.substring(headEnd);
+
+        router.get().order(StaticAssets.ROUTE_ORDER).handler(this::serve);
+    }
+
+    private void serve(RoutingContext ctx) {
+        if (!isPageRequest(ctx)) {
+            ctx.next();
+            return;
+        }
+
+        Uni<String> user = QuarkusHttpUser.getSecurityIdentity(ctx, null)
+                .onFailure().recoverWithNull()
+                .onItem().transform(SpaShell::username)
+                .onItem().transform(bootstrapData::toScriptJson);
+        Uni<String> tagNames = blocking(bootstrapData::tagNamesJson);
+        Uni<String> directory = blocking(bootstrapData::directoryFirstPageJson);
+
+        Uni.combine().all().unis(user, tagNames, directory).asTuple()
+                .subscribe().with(
+                        parts -> send(ctx, "<script id=\"copla-bootstrap\" type=\"application/json\">"
+                                + "{\"user\":{\"username\":" + parts.getItem1() + "},"
+                                + "\"tagNames\":" + parts.getItem2() + ","
+                                + "\"artists\":" + parts.getItem3() + "}</script>\n"),
+                        failure -> {
+                            log.warn("Failed to assemble the bootstrap state, sending the plain shell", failure);
+                            send(ctx, "");
+                        });
+    }
+
+    private void send(RoutingContext ctx, String bootstrap) {
+        ctx.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, "text/html; charset=utf-8")
+                .putHeader(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .end(head + bootstrap + tail);
+    }
+
+    private static Uni<String> blocking(Supplier<String> source) {
+        return Uni.createFrom().item(source).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    private static String username(SecurityIdentity identity) {
+        return identity == null || identity.isAnonymous() ? "" : identity.getPrincipal().getName();
+    }
+
+    /**
+     * @return whether the request is a navigation to a page of the SPA, as opposed to the API or a file
+     */
+    private static boolean isPageRequest(RoutingContext ctx) {
+        String path = ctx.normalizedPath();
+        if (path.startsWith("/api/") || path.startsWith("/assets/")) {
+            return false;
+        }
+        // Files of the public directory (vite.svg, client-metadata.json) are left to Quinoa
+        if (path.substring(path.lastIndexOf('/') + 1).contains(".")) {
+            return false;
+        }
+        String accept = ctx.request().getHeader(HttpHeaders.ACCEPT);
+        return accept == null || accept.contains("text/html");
+    }
+}
@@ -0,0 +1,167 @@
+package art.webui;
+
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Serves the hashed assets of the web UI build from {@code copla.webui.dist-dir} ahead of Quinoa.
+ * The files are indexed once at startup with their precompressed variants written by the Vite build
+ * ({@code .br}, {@code .gz}); a request picks the variant from {@code Accept-Encoding} and sends it
+ * with zero-copy file transfer, marked {@code immutable} since a new build changes the file names.
+ * Pages of the SPA shell are marked {@code no-cache} so a deploy is picked up on the next navigation.
+ * <p>
+ * Without {@code copla.webui.dist-dir} (dev mode, tests) Quinoa serves everything as before.
+ */
+@ApplicationScoped
+public class StaticAssets {
+
+    private static final Logger log = Logger.getLogger(StaticAssets.class);
+
+    // Before the Quinoa handler (quarkus.quinoa.ui-handler-priority)
+    static final int ROUTE_ORDER = 900;
+
+    private static final String ASSETS_PATH = "/assets/";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("js", "text/javascript; charset=utf-8"),
+            Map.entry("css", "text/css; charset=utf-8"),
+            Map.entry("json", "application/json"),
+            Map.entry("map", "application/json"),
+            Map.entry("txt", "text/plain; charset=utf-8"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"));
+
+    /**
+     * A hashed asset and its precompressed variants, null when the build did not write one.
+     */
+    record Asset(String file, String contentType, String brotli, String gzip) {
+    }
+
+    @ConfigProperty(name = "copla.webui.dist-dir")
+    Optional<String> distDir;
+
+    private final Map<String, Asset> assets = new HashMap<>();
+
+    void init(@Observes Router router) {
+        if (distDir.isEmpty()) {
+            return;
+        }
+        Path directory = Path.of(distDir.get(), "assets").toAbsolutePath().normalize();
+        if (!Files.isDirectory(directory)) {
+            log.warnf("No web UI assets in %s, leaving them to Quinoa", directory);
+            return;
+        }
+        try {
+            index(directory);
+        } catch (IOException e) {
+            log.error("Failed to index the web UI assets, leaving them to Quinoa", e);
+            return;
+        }
+        log.infof("Serving %d web UI assets from %s", assets.size(), directory);
+
+        router.get(ASSETS_PATH + "*").order(ROUTE_ORDER).handler(this::serveAsset);
+        router.get().order(ROUTE_ORDER).handler(StaticAssets::revalidateShell);
+    }
+
+    private void index(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".br") || name.endsWith(".gz")) {
+                    continue;
+                }
+                String extension = name.substring(name.lastIndexOf('.') + 1);
+                Path brotli = file.resolveSibling(name + ".br");
+                Path gzip = file.resolveSibling(name + ".gz");
+                assets.put(name, new Asset(file.toString(),
+                        CONTENT_TYPES.getOrDefault(extension, "application/octet-stream"),
+                        Files.isRegularFile(brotli) ? brotli.toString() : null,
+                        Files.isRegularFile(gzip) ? gzip.toString() : null));
+            }
+        }
+    }
+
+    private void serveAsset(RoutingContext ctx) {
+        Asset asset = assets.get(ctx.normalizedPath().substring(ASSETS_PATH.length()));
+        if (asset == null) {
+            ctx.next();
+            return;
+        }
+
+        String acceptEncoding = ctx.request().getHeader(HttpHeaders.ACCEPT_ENCODING);
+        String file = asset.file();
+        String encoding = null;
+        if (asset.brotli() != null && accepts(acceptEncoding, "br")) {
+            file = asset.brotli();
+            encoding = "br";
+        } else if (asset.gzip() != null && accepts(acceptEncoding, "gzip")) {
+            file = asset.gzip();
+            encoding = "gzip";
+        }
+
+        var response = ctx.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, asset.contentType())
+                .putHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+                .putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (encoding != null) {
+            response.putHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        response.sendFile(file);
+    }
+
+    private static void revalidateShell(RoutingContext ctx) {
+        if (!ctx.normalizedPath().startsWith("/api/")) {
+            ctx.addHeadersEndHandler(ignored -> {
+                String contentType = ctx.response().headers().get(HttpHeaders.CONTENT_TYPE);
+                if (contentType != null && contentType.startsWith("text/html")) {
+                    ctx.response().putHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+                }
+            });
+        }
+        ctx.next();
+    }
+
+    /**
+     * @return whether the Accept-Encoding header lists the coding without excluding it with q=0
+     */
+    public static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!tokens[0].trim().equalsIgnoreCase(coding)) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
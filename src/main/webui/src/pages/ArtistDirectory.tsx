@@ -15,6 +15,7 @@ import { ErrorAlert } from "../ui-component/ErrorAlert";
 import { UserCard } from "../ui-component/UserCard";
 import { EmptyState } from "../ui-component/EmptyState";
 import { motion, AnimatePresence } from "framer-motion";
+import { bootstrapTagNames, bootstrapUsername, takeBootstrapArtists } from "../resources/Bootstrap.ts";
 
 // Define interface for user social profiles
 interface SocialProfile {
@@ -46,12 +47,33 @@ interface UserData {
     galleryImages?: string[]; // Add gallery images array
 }
 
+// Enhance the data with demo UI fields while preserving real data
+function enhanceArtists(artistData: UserData[]): UserData[] {
+    return artistData.map(artist => ({
+        ...artist,
+        // Map real commission status to UI status
+        commissionStatus: artist.isOpenForCommissions ? "open" : "closed" as "open" | "closed" | "busy",
+        // Use real tags from artist profile instead of demo tags
+        tags: artist.relatedTags || [],
+        startingPrice: artist.lowestPrice,
+        bio: artist.bio || `${artist.name} doesn't have a bio yet!`,
+        // Add mock gallery images for demo (replace with real API call later)
+        galleryImages: [
+            `https://picsum.photos/400/300?random=${artist.id}`,
+            `https://picsum.photos/400/300?random=${artist.id + 1000}`,
+            `https://picsum.photos/400/300?random=${artist.id + 2000}`
+        ]
+    }));
+}
+
 function ArtistDirectory() {
-    const [userList, setUserList] = useState<UserData[]>([]);
-    const [loading, setLoading] = useState(true);
+    // First page inlined in the shell, rendered right away while the full list loads
+    const [bootstrapArtists] = useState(() => takeBootstrapArtists());
+    const [userList, setUserList] = useState<UserData[]>(() => bootstrapArtists ? enhanceArtists(bootstrapArtists) : []);
+    const [loading, setLoading] = useState(bootstrapArtists === undefined);
     const [error, setError] = useState<string | null>(null);
     const [searchTerm, setSearchTerm] = useState("");
-    const [availableTags, setAvailableTags] = useState<string[]>([]);
+    const [availableTags, setAvailableTags] = useState<string[]>(() => bootstrapTagNames() ?? []);
     const [currentUser, setCurrentUser] = useState<string | null>(null);
     const [followedArtistIds, setFollowedArtistIds] = useState<number[]>([]);
     const [followingLoading, setFollowingLoading] = useState(false);
@@ -71,6 +93,9 @@ function ArtistDirectory() {
     // Fetch available tags
     useEffect(() => {
         async function fetchTags() {
+            if (bootstrapTagNames()) {
+                return;
+            }
             try {
                 const response = await fetch('/api/tags/names');
                 if (response.ok) {
@@ -89,6 +114,14 @@ function ArtistDirectory() {
     // Check current user authentication and load following data
     useEffect(() => {
         async function checkCurrentUser() {
+            const bootstrapped = bootstrapUsername();
+            if (bootstrapped !== undefined) {
+                setCurrentUser(bootstrapped);
+                if (bootstrapped) {
+                    await loadFollowingData(bootstrapped);
+                }
+                return;
+            }
             try {
                 const response = await fetch('/api/users/me', { credentials: 'include' });
                 if (response.ok) {
@@ -133,7 +166,9 @@ function ArtistDirectory() {
     useEffect(() => {
         async function fetchArtists() {
             try {
-                setLoading(true);
+                if (!bootstrapArtists) {
+                    setLoading(true);
+                }
                 setError(null);
 
                 // Always fetch all artists, apply following filter client-side
@@ -145,24 +180,7 @@ function ArtistDirectory() {
 
                 const artistData: UserData[] = await response.json();
 
-                // Enhance the data with demo UI fields while preserving real data
-                const enhancedData = artistData.map(artist => ({
-                    ...artist,
-                    // Map real commission status to UI status
-                    commissionStatus: artist.isOpenForCommissions ? "open" : "closed" as "open" | "closed" | "busy",
-                    // Use real tags from artist profile instead of demo tags
-                    tags: artist.relatedTags || [],
-                    startingPrice: artist.lowestPrice,
-                    bio: artist.bio || `${artist.name} doesn't have a bio yet!`,
-                    // Add mock gallery images for demo (replace with real API call later)
-                    galleryImages: [
-                        `https://picsum.photos/400/300?random=${artist.id}`,
-                        `https://picsum.photos/400/300?random=${artist.id + 1000}`,
-                        `https://picsum.photos/400/300?random=${artist.id + 2000}`
-                    ]
-                }));
-
-                setUserList(enhancedData);
+                setUserList(enhanceArtists(artistData));
             } catch (err: any) {
                 setError(err.message);
             } finally {
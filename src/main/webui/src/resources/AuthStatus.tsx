@@ -1,4 +1,5 @@
 import { useState, useEffect } from 'react';
+import { bootstrapUsername } from './Bootstrap.ts';
 
 interface AuthStatus {
     loading: boolean;
@@ -18,6 +19,18 @@ export function useAuthStatus(): AuthStatus {
 
     useEffect(() => {
 
+        // The shell already carries the user, no need for a round trip
+        const bootstrapped = bootstrapUsername();
+        if (bootstrapped !== undefined) {
+            setUsername(bootstrapped);
+            if (bootstrapped) {
+                document.cookie = `username=${bootstrapped}; path=/; max-age=86400; SameSite=Strict`;
+            } else {
+                document.cookie = `username=; Max-Age=0; path=/`;
+            }
+            return;
+        }
+
         const fetchUser = async () => {
             try {
                 const response = await fetch('/api/users/me', {
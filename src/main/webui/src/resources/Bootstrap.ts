@@ -0,0 +1,46 @@
+// Initial state inlined by the server in index.html (see SpaShell), so the first render
+// doesn't wait for /api/users/me, /api/tags/names and /api/users/artists one after the other.
+// Absent in dev mode, where the pages fetch everything themselves.
+
+interface BootstrapState {
+    user?: { username: string };
+    tagNames?: string[];
+    artists?: any[];
+}
+
+let state: BootstrapState | null | undefined;
+let artistsTaken = false;
+
+function read(): BootstrapState | null {
+    if (state === undefined) {
+        const element = document.getElementById('copla-bootstrap');
+        try {
+            state = element?.textContent ? JSON.parse(element.textContent) : null;
+        } catch {
+            state = null;
+        }
+    }
+    return state ?? null;
+}
+
+// The user only changes with a full page load (login form, logout), valid for the whole page
+export function bootstrapUsername(): string | null | undefined {
+    const user = read()?.user;
+    if (!user) {
+        return undefined;
+    }
+    return user.username !== '' ? user.username : null;
+}
+
+export function bootstrapTagNames(): string[] | undefined {
+    return read()?.tagNames;
+}
+
+// A snapshot of the first directory page, only for the first render after the page load
+export function takeBootstrapArtists(): any[] | undefined {
+    if (artistsTaken) {
+        return undefined;
+    }
+    artistsTaken = true;
+    return read()?.artists;
+}
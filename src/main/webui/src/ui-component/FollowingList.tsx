@@ -34,6 +34,16 @@ const FollowingList: React.FC<FollowingListProps> = ({ username, openOnly = fals
         fetchFollowing();
     }, [username, openOnly]);
 
+    // Refresh when a followed artist opens or closes commissions instead of polling
+    useEffect(() => {
+        if (!openOnly) {
+            return;
+        }
+        const events = new EventSource('/api/notifications/commissions', { withCredentials: true });
+        events.addEventListener('commission-status', () => fetchFollowing());
+        return () => events.close();
+    }, [username, openOnly]);
+
     const fetchFollowing = async () => {
         try {
             setLoading(true);
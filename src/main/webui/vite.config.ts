@@ -1,7 +1,39 @@
-import { defineConfig } from 'vite';
+import { defineConfig, type Plugin } from 'vite';
 import react from '@vitejs/plugin-react';
 import viteTsconfigPaths from 'vite-tsconfig-paths';
 import tailwindcss from "@tailwindcss/vite";
+import { readFileSync, writeFileSync } from 'node:fs';
+import { join } from 'node:path';
+import { brotliCompressSync, constants, gzipSync } from 'node:zlib';
+
+// Writes a .br and a .gz next to every hashed text asset, the backend picks one from Accept-Encoding
+// so nothing is compressed per request
+function precompress(): Plugin {
+  const compressible = /\.(js|css|svg|json|txt|map)$/;
+  return {
+    name: 'copla-precompress',
+    apply: 'build',
+    writeBundle(options, bundle) {
+      const outDir = options.dir ?? 'dist';
+      for (const fileName of Object.keys(bundle)) {
+        if (!fileName.startsWith('assets/') || !compressible.test(fileName)) {
+          continue;
+        }
+        const source = readFileSync(join(outDir, fileName));
+        if (source.length < 1024) {
+          continue;
+        }
+        writeFileSync(join(outDir, `${fileName}.br`), brotliCompressSync(source, {
+          params: {
+            [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+            [constants.BROTLI_PARAM_SIZE_HINT]: source.length,
+          },
+        }));
+        writeFileSync(join(outDir, `${fileName}.gz`), gzipSync(source, { level: 9 }));
+      }
+    },
+  };
+}
 
 // https://vite.dev/config/
 export default defineConfig({
@@ -10,6 +42,7 @@ export default defineConfig({
       react(),
       viteTsconfigPaths(),
       tailwindcss(),
+      precompress(),
   ],
   build: {
     assetsDir: 'assets',
@@ -27,4 +60,4 @@ export default defineConfig({
     open: false,
     port: 3000,
   },
-});
\ No newline at end of file
+});
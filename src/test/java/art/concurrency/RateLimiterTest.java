@@ -0,0 +1,67 @@
+package art.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimiterTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    // 10 per minute is one request every 6 s, with bursts of 3
+    private final RateLimiter.Limit limit = RateLimiter.limit("test", 10, Duration.ofMinutes(1), 3, 100);
+
+    @Test
+    void acceptsTheBurstThenAsksToWaitOneInterval() {
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, RateLimiter.acquireLocal(limit, "alice", now), "request " + i);
+        }
+        assertEquals(6 * SECOND, RateLimiter.acquireLocal(limit, "alice", now));
+        assertEquals(4 * SECOND, RateLimiter.acquireLocal(limit, "alice", now + 2 * SECOND));
+    }
+
+    @Test
+    void refusedRequestsDontPushTheBucketBack() {
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            RateLimiter.acquireLocal(limit, "alice", now);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals(6 * SECOND, RateLimiter.acquireLocal(limit, "alice", now));
+        }
+        assertEquals(0, RateLimiter.acquireLocal(limit, "alice", now + 6 * SECOND));
+        assertEquals(6 * SECOND, RateLimiter.acquireLocal(limit, "alice", now + 6 * SECOND));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            RateLimiter.acquireLocal(limit, "alice", now);
+        }
+        long later = now + 12 * SECOND;
+        assertEquals(0, RateLimiter.acquireLocal(limit, "alice", later));
+        assertEquals(0, RateLimiter.acquireLocal(limit, "alice", later));
+        assertEquals(6 * SECOND, RateLimiter.acquireLocal(limit, "alice", later));
+    }
+
+    @Test
+    void keepsABucketPerKey() {
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            RateLimiter.acquireLocal(limit, "alice", now);
+        }
+        assertEquals(0, RateLimiter.acquireLocal(limit, "bob", now));
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertEquals(1, RateLimitInterceptor.retryAfterSeconds(1));
+        assertEquals(1, RateLimitInterceptor.retryAfterSeconds(SECOND / 2));
+        assertEquals(6, RateLimitInterceptor.retryAfterSeconds(6 * SECOND));
+        assertEquals(7, RateLimitInterceptor.retryAfterSeconds(6 * SECOND + 1));
+    }
+}
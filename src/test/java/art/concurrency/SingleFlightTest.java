@@ -0,0 +1,124 @@
+package art.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(10), registry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<String> load = () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "profile";
+        };
+
+        Future<String> leader = executor.submit(() -> flight.execute("alice", load));
+        awaitCount("leader", 1);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            followers.add(executor.submit(() -> flight.execute("alice", load)));
+        }
+        awaitCount("follower", 8);
+        release.countDown();
+
+        assertEquals("profile", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("profile", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, fallbacks());
+    }
+
+    @Test
+    void followerLoadsItselfAfterMaxWait() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofMillis(50), registry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> flight.execute("alice", () -> {
+            await(release);
+            return "slow";
+        }));
+        awaitCount("leader", 1);
+
+        assertEquals("fast", flight.execute("alice", () -> "fast"));
+        assertEquals(1, fallbacks());
+
+        release.countDown();
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failureGoesToTheLeaderOnly() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofSeconds(10), registry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> flight.execute("alice", () -> {
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        awaitCount("leader", 1);
+        Future<String> follower = executor.submit(() -> flight.execute("alice", () -> "retried"));
+        awaitCount("follower", 1);
+        release.countDown();
+
+        Exception failure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof IllegalStateException);
+        assertEquals("retried", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, fallbacks());
+    }
+
+    @Test
+    void completedLoadsAreNotCached() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ofSeconds(10), registry);
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals(1, flight.execute("alice", loads::incrementAndGet));
+        assertEquals(2, flight.execute("alice", loads::incrementAndGet));
+    }
+
+    private double fallbacks() {
+        return registry.get("copla.single-flight.fallbacks").counter().count();
+    }
+
+    private void awaitCount(String role, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("copla.single-flight.loads").tag("role", role).counter().count() < count) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for " + count + " " + role + "s");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package art.diagnostics;
+
+import io.restassured.response.Response;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Asserts the statement budget of an endpoint from the headers added by {@link QueryBudgetFilter}
+ * (enabled in the test profile with {@code copla.query-budget.headers}).
+ * <pre>
+ * Response response = given().get("/api/users/artists");
+ * QueryBudgetAssertions.assertStatementsAtMost(response, 3);
+ * </pre>
+ */
+public final class QueryBudgetAssertions {
+
+    private QueryBudgetAssertions() {
+    }
+
+    public static int statements(Response response) {
+        String count = response.getHeader(QueryBudgetFilter.COUNT_HEADER);
+        assertNotNull(count, "No " + QueryBudgetFilter.COUNT_HEADER + " header, is copla.query-budget.headers enabled?");
+        return Integer.parseInt(count);
+    }
+
+    public static long databaseMillis(Response response) {
+        String time = response.getHeader(QueryBudgetFilter.TIME_HEADER);
+        assertNotNull(time, "No " + QueryBudgetFilter.TIME_HEADER + " header, is copla.query-budget.headers enabled?");
+        return Long.parseLong(time);
+    }
+
+    public static void assertStatementsAtMost(Response response, int max) {
+        int statements = statements(response);
+        assertTrue(statements <= max, "Expected at most " + max + " statements, the request executed " + statements);
+    }
+
+    public static void assertDatabaseTimeAtMost(Response response, long maxMillis) {
+        long millis = databaseMillis(response);
+        assertTrue(millis <= maxMillis, "Expected at most " + maxMillis + " ms in the database, the request took " + millis);
+    }
+}
@@ -0,0 +1,105 @@
+package art.events;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class OutboxDispatcherTest {
+
+    /**
+     * Records the events of the tests, and fails the first batch holding a {@code test.fail-once} event.
+     */
+    @ApplicationScoped
+    static class RecordingSubscriber implements OutboxSubscriber {
+
+        final List<DomainEvent> handled = new CopyOnWriteArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public String name() {
+            return "test-recorder";
+        }
+
+        @Override
+        public void handle(List<DomainEvent> events) {
+            List<DomainEvent> batch = events.stream().filter(event -> event.type().startsWith("test.")).toList();
+            if (batch.stream().anyMatch(event -> event.type().equals("test.fail-once"))
+                    && failures.getAndIncrement() == 0) {
+                throw new IllegalStateException("first delivery fails");
+            }
+            handled.addAll(batch);
+        }
+
+        List<DomainEvent> of(String username) {
+            return handled.stream().filter(event -> event.username().equals(username)).toList();
+        }
+    }
+
+    @Inject
+    Outbox outbox;
+
+    @Inject
+    OutboxDispatcher dispatcher;
+
+    @Inject
+    RecordingSubscriber subscriber;
+
+    @Test
+    void deliversEventsInCommitOrder() throws InterruptedException {
+        String username = "outbox-" + UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            append("test.changed", username, i);
+        }
+
+        List<DomainEvent> events = awaitEvents(username, 5);
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals("{\"n\":" + i + "}", events.get(i).payload());
+            if (i > 0) {
+                assertTrue(events.get(i).position() > events.get(i - 1).position());
+            }
+        }
+    }
+
+    @Test
+    void deliversAFailedBatchAgainWithoutLosingOrDuplicatingEvents() throws InterruptedException {
+        String username = "outbox-" + UUID.randomUUID();
+        append("test.changed", username, 0);
+        append("test.fail-once", username, 1);
+        append("test.changed", username, 2);
+
+        List<DomainEvent> events = awaitEvents(username, 3);
+        assertEquals(List.of("test.changed", "test.fail-once", "test.changed"),
+                events.stream().map(DomainEvent::type).toList());
+        assertEquals(3, events.stream().map(DomainEvent::position).distinct().count());
+        assertTrue(subscriber.failures.get() >= 1);
+    }
+
+    private void append(String type, String username, int n) {
+        QuarkusTransaction.requiringNew().run(() -> outbox.append(type, username, Map.of("n", n)));
+    }
+
+    private List<DomainEvent> awaitEvents(String username, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (subscriber.of(username).size() < count && System.nanoTime() < deadline) {
+            // The scheduled poll may be delivering already, this one then skips the locked offset
+            dispatcher.dispatch();
+            Thread.sleep(50);
+        }
+        List<DomainEvent> events = subscriber.of(username);
+        assertEquals(count, events.size(), "events delivered to the subscriber");
+        return events;
+    }
+}
@@ -0,0 +1,66 @@
+package art.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FollowGraphDeltaTest {
+
+    private static long edge(int follower, int followed) {
+        return FollowGraphDelta.pack(follower, followed);
+    }
+
+    @Test
+    void keepsTheEdgesOfEachUserInBothDirections() {
+        FollowGraphDelta delta = FollowGraphDelta.EMPTY.with(new long[] {edge(3, 7), edge(1, 7), edge(3, 2)});
+
+        assertArrayEquals(new int[] {2, 7}, delta.followees(3));
+        assertArrayEquals(new int[] {1, 3}, delta.followers(7));
+        assertArrayEquals(new int[0], delta.followees(7));
+        assertTrue(delta.follows(1, 7));
+        assertFalse(delta.follows(7, 1));
+        assertEquals(3, delta.size());
+    }
+
+    @Test
+    void addingAnEdgeTwiceKeepsOne() {
+        FollowGraphDelta delta = FollowGraphDelta.EMPTY.with(new long[] {edge(1, 2)}).with(new long[] {edge(1, 2), edge(1, 3)});
+
+        assertArrayEquals(new int[] {2, 3}, delta.followees(1));
+        assertEquals(2, delta.size());
+    }
+
+    @Test
+    void withDoesNotChangeTheOriginal() {
+        FollowGraphDelta first = FollowGraphDelta.EMPTY.with(new long[] {edge(1, 2)});
+        first.with(new long[] {edge(1, 3)});
+
+        assertArrayEquals(new int[] {2}, first.followees(1));
+    }
+
+    @Test
+    void withoutRemovesTheEdgesOfAnAppliedDelta() {
+        FollowGraphDelta applied = FollowGraphDelta.EMPTY.with(new long[] {edge(1, 2), edge(4, 2)});
+        // Added while the snapshot was being built
+        FollowGraphDelta current = applied.with(new long[] {edge(5, 2), edge(1, 6)});
+
+        FollowGraphDelta remaining = current.without(applied);
+        assertArrayEquals(new int[] {5}, remaining.followers(2));
+        assertArrayEquals(new int[] {6}, remaining.followees(1));
+        assertEquals(2, remaining.size());
+        assertEquals(0, applied.without(applied).size());
+        assertEquals(0, current.without(current).size());
+    }
+
+    @Test
+    void handlesTheLargestIds() {
+        FollowGraphDelta delta = FollowGraphDelta.EMPTY.with(new long[] {edge(Integer.MAX_VALUE, 1), edge(1, Integer.MAX_VALUE)});
+
+        assertArrayEquals(new int[] {1}, delta.followees(Integer.MAX_VALUE));
+        assertArrayEquals(new int[] {Integer.MAX_VALUE}, delta.followees(1));
+        assertArrayEquals(new int[] {Integer.MAX_VALUE}, delta.followers(1));
+    }
+}
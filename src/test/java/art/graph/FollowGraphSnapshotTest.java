@@ -0,0 +1,65 @@
+package art.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FollowGraphSnapshotTest {
+
+    // 10 and 30 follow each other, 20 follows 10 twice and itself, 40 follows 30
+    private final FollowGraphSnapshot graph = FollowGraphSnapshot.build(
+            new int[] {10, 30, 20, 20, 20, 40, 99},
+            new int[] {30, 10, 10, 10, 20, 30, 99},
+            6);
+
+    @Test
+    void buildsAdjacencyListsSortedById() {
+        assertArrayEquals(new int[] {30}, graph.followees(10));
+        assertArrayEquals(new int[] {20, 30}, graph.followers(10));
+        assertArrayEquals(new int[] {10, 40}, graph.followers(30));
+        assertArrayEquals(new int[] {10}, graph.followees(20));
+    }
+
+    @Test
+    void dropsDuplicatesAndSelfFollowsAndIgnoresEdgesPastTheCount() {
+        assertEquals(4, graph.nodes());
+        assertEquals(4, graph.edges());
+        assertFalse(graph.follows(20, 20));
+        assertFalse(graph.follows(99, 99));
+    }
+
+    @Test
+    void answersForUnknownUsers() {
+        assertArrayEquals(new int[0], graph.followees(5));
+        assertArrayEquals(new int[0], graph.followers(50));
+        assertFalse(graph.follows(5, 10));
+        assertArrayEquals(new int[0], FollowGraphSnapshot.EMPTY.followers(10));
+    }
+
+    @Test
+    void findsMutuals() {
+        assertArrayEquals(new int[] {30}, graph.mutuals(10));
+        assertArrayEquals(new int[] {10}, graph.mutuals(30));
+        assertArrayEquals(new int[0], graph.mutuals(20));
+        assertTrue(graph.follows(40, 30));
+        assertFalse(graph.follows(30, 40));
+    }
+
+    @Test
+    void unionMergesWithoutDuplicates() {
+        assertArrayEquals(new int[] {1, 2, 3, 5, 8}, FollowGraphSnapshot.union(new int[] {1, 3, 5}, new int[] {2, 3, 8}));
+        assertArrayEquals(new int[] {1, 3}, FollowGraphSnapshot.union(new int[] {1, 3}, new int[0]));
+        assertArrayEquals(new int[] {4}, FollowGraphSnapshot.union(new int[0], new int[] {4}));
+    }
+
+    @Test
+    void intersectionKeepsCommonIds() {
+        assertArrayEquals(new int[] {3, 8},
+                FollowGraphSnapshot.intersection(new int[] {1, 3, 5, 8}, new int[] {2, 3, 8, 9}));
+        assertArrayEquals(new int[0], FollowGraphSnapshot.intersection(new int[] {1, 2}, new int[] {3, 4}));
+        assertArrayEquals(new int[0], FollowGraphSnapshot.intersection(new int[0], new int[] {3}));
+    }
+}
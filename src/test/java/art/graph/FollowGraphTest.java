@@ -0,0 +1,38 @@
+package art.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FollowGraphTest {
+
+    @Test
+    void loadSkipsEdgesOfUsersBeyondAnInt() {
+        FollowGraph.Edges edges = new FollowGraph.Edges();
+        edges.add(1, 2);
+        edges.add(1L + Integer.MAX_VALUE, 2);
+        edges.add(2, 5_000_000_000L);
+        edges.add(-1, 2);
+        edges.add(2, Integer.MAX_VALUE);
+
+        FollowGraphSnapshot graph = edges.build();
+        assertEquals(2, graph.edges());
+        assertTrue(graph.follows(1, 2));
+        assertArrayEquals(new int[] {1}, graph.followers(2));
+        assertArrayEquals(new int[] {Integer.MAX_VALUE}, graph.followees(2));
+    }
+
+    @Test
+    void loadGrowsPastTheInitialCapacity() {
+        FollowGraph.Edges edges = new FollowGraph.Edges();
+        for (int followed = 1; followed <= 5000; followed++) {
+            edges.add(0, followed);
+        }
+
+        FollowGraphSnapshot graph = edges.build();
+        assertEquals(5000, graph.edges());
+        assertEquals(5000, graph.followees(0).length);
+    }
+}
@@ -0,0 +1,107 @@
+package art.resources;
+
+import art.diagnostics.QueryBudgetAssertions;
+import art.entities.Artist;
+import art.entities.User;
+import art.events.ArtistProfileChanged;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.Response;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class ArtistProfileCacheTest {
+
+    private static final byte[] OLD = "{\"bio\":\"old\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NEW = "{\"bio\":\"new\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Inject
+    ArtistProfileCache cache;
+
+    @Inject
+    Event<ArtistProfileChanged> profileChanged;
+
+    @Test
+    void aProfileLoadedBeforeAChangeIsNotCached() {
+        String username = "cache-" + UUID.randomUUID();
+        long token = cache.token();
+        // Outside a transaction the AFTER_SUCCESS observer runs at once
+        profileChanged.fire(new ArtistProfileChanged(username));
+
+        cache.put(username, OLD, token);
+        assertNull(cache.get(username, () -> false));
+
+        cache.put(username, NEW, cache.token());
+        assertArrayEquals(NEW, cache.get(username, () -> false));
+    }
+
+    @Test
+    void aReplicaReadIsOnlyCachedWithoutARecentChange() {
+        String unchanged = "cache-" + UUID.randomUUID();
+        cache.put(unchanged, OLD, -1);
+        assertArrayEquals(OLD, cache.get(unchanged, () -> false));
+
+        String changed = "cache-" + UUID.randomUUID();
+        profileChanged.fire(new ArtistProfileChanged(changed));
+        cache.put(changed, OLD, -1);
+        assertNull(cache.get(changed, () -> false));
+    }
+
+    @Test
+    void aStaleEntryIsServedToOthersButNotToItsOwner() {
+        String username = "cache-" + UUID.randomUUID();
+        cache.put(username, OLD, cache.token());
+        profileChanged.fire(new ArtistProfileChanged(username));
+
+        assertTrue(cache.isStale(username));
+        assertNull(cache.get(username, () -> true));
+        assertArrayEquals(OLD, cache.get(username, () -> false));
+    }
+
+    @Test
+    void servesHitsWithoutStatementsAndRevalidatesInTheBackground() throws InterruptedException {
+        String username = "cache-" + UUID.randomUUID().toString().substring(0, 8);
+        QuarkusTransaction.requiringNew().run(() -> {
+            Artist.add(username, "password", username + "@example.com", false);
+            User.findByUsername(username).bio = "before";
+        });
+
+        Response miss = given().get("/api/users/" + username);
+        assertEquals(200, miss.statusCode());
+        assertTrue(QueryBudgetAssertions.statements(miss) > 0);
+
+        Response hit = given().get("/api/users/" + username);
+        assertEquals("before", hit.jsonPath().getString("bio"));
+        QueryBudgetAssertions.assertStatementsAtMost(hit, 0);
+
+        QuarkusTransaction.requiringNew().run(() -> User.findByUsername(username).bio = "after");
+        profileChanged.fire(new ArtistProfileChanged(username));
+
+        // The first request after the change gets the old bytes and starts the rebuild
+        Response stale = given().get("/api/users/" + username);
+        assertEquals("before", stale.jsonPath().getString("bio"));
+        QueryBudgetAssertions.assertStatementsAtMost(stale, 0);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String bio;
+        do {
+            Thread.sleep(20);
+            bio = given().get("/api/users/" + username).jsonPath().getString("bio");
+        } while (!"after".equals(bio) && System.nanoTime() < deadline);
+        assertEquals("after", bio);
+        assertFalse(cache.isStale(username));
+    }
+}
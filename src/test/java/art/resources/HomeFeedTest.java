@@ -0,0 +1,165 @@
+package art.resources;
+
+import art.dtos.ArtworkDto;
+import art.entities.Artist;
+import art.entities.Artwork;
+import art.entities.Following;
+import art.entities.User;
+import art.events.FollowsLinked;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestProfile(HomeFeedTest.SmallFanOut.class)
+class HomeFeedTest {
+
+    /**
+     * Artists with one follower are fanned out to the inboxes, artists with more are merged on read.
+     */
+    public static class SmallFanOut implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("copla.feed.fan-out-limit", "1");
+        }
+    }
+
+    @Inject
+    HomeFeed homeFeed;
+
+    @Inject
+    Event<FollowsLinked> followsLinked;
+
+    @Test
+    void pagesMergeTheInboxAndTheArtistsReadOnMergeWithoutDuplicatesOrGaps() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 12, 0);
+        long readerId = QuarkusTransaction.requiringNew().call(() -> {
+            User reader = user("reader-" + suffix);
+            User other = user("other-" + suffix);
+            Artist inboxArtist = artist("inbox-" + suffix);
+            Artist pulledArtist = artist("pulled-" + suffix);
+            follow(reader, inboxArtist);
+            follow(reader, pulledArtist);
+            follow(other, pulledArtist);
+
+            for (int i = 0; i < 7; i++) {
+                Artwork.add("inbox " + i, null, base.minusMinutes(2L * i), "inbox.png", null, inboxArtist);
+                Artwork.add("pulled " + i, null, base.minusMinutes(2L * i + 1), "pulled.png", null, pulledArtist);
+            }
+            // Same instant on both paths, the id breaks the tie
+            Artwork.add("inbox tie", null, base.minusMinutes(20), "inbox.png", null, inboxArtist);
+            Artwork.add("pulled tie", null, base.minusMinutes(20), "pulled.png", null, pulledArtist);
+            return reader.id;
+        });
+        fanOutEverything();
+
+        List<Artwork> expected = QuarkusTransaction.requiringNew().call(() -> Artwork.<Artwork>list(
+                "artist.name in ?1", List.of("inbox-" + suffix, "pulled-" + suffix)));
+        assertTrue(expected.stream().allMatch(artwork -> artwork.fannedOut == artwork.artist.name.startsWith("inbox")),
+                "the artist with one follower is fanned out, the other merged on read");
+        List<Long> expectedIds = expected.stream()
+                .sorted(Comparator.comparing((Artwork artwork) -> artwork.timeCreated)
+                        .thenComparing(artwork -> artwork.id).reversed())
+                .map(artwork -> artwork.id)
+                .toList();
+
+        List<Long> read = new ArrayList<>();
+        HomeFeed.Cursor cursor = HomeFeed.Cursor.START;
+        int pages = 0;
+        while (cursor != null) {
+            HomeFeed.Page page = homeFeed.page(readerId, cursor, 4);
+            page.items().stream().map((ArtworkDto artwork) -> artwork.id).forEach(read::add);
+            cursor = page.next();
+            pages++;
+        }
+
+        assertEquals(expectedIds, read);
+        assertEquals(read.size(), new HashSet<>(read).size(), "no artwork is returned twice");
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void followingAnArtistFillsTheInboxWithTheirEarlierWorks() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 12, 0);
+        long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            User reader = user("newcomer-" + suffix);
+            Artist artist = artist("early-" + suffix);
+            Artwork.add("before the follow", null, base, "early.png", null, artist);
+            return new long[] {reader.id, artist.id};
+        });
+        fanOutEverything();
+        long readerId = ids[0];
+        long artistId = ids[1];
+        assertTrue(homeFeed.page(readerId, HomeFeed.Cursor.START, 4).items().isEmpty());
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            follow(User.findById(readerId), User.findById(artistId));
+            followsLinked.fire(new FollowsLinked(readerId, new long[] {artistId}));
+        });
+
+        assertTrue(QuarkusTransaction.requiringNew().call(() ->
+                Artwork.<Artwork>find("artist.id", artistId).firstResult().fannedOut),
+                "the artwork was fanned out to no one before the follow");
+        List<ArtworkDto> items = homeFeed.page(readerId, HomeFeed.Cursor.START, 4).items();
+        assertEquals(List.of("before the follow"), items.stream().map(artwork -> artwork.title).toList());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        long readerId = QuarkusTransaction.requiringNew().call(() -> user("lonely-" + suffix).id);
+
+        HomeFeed.Page page = homeFeed.page(readerId, HomeFeed.Cursor.START, 4);
+        assertTrue(page.items().isEmpty());
+        assertNull(page.next());
+    }
+
+    private void fanOutEverything() {
+        for (int i = 0; i < 100; i++) {
+            homeFeed.fanOut();
+            long pending = QuarkusTransaction.requiringNew().call(() -> Artwork.count("fannedOut is null"));
+            if (pending == 0) {
+                return;
+            }
+        }
+        throw new AssertionError("artworks left to fan out");
+    }
+
+    private static User user(String name) {
+        User.add(name, "password");
+        return User.findByUsername(name);
+    }
+
+    private static Artist artist(String name) {
+        Artist.add(name, "password", name + "@example.com", false);
+        return (Artist) User.findByUsername(name);
+    }
+
+    private static void follow(User follower, User followed) {
+        Following following = new Following();
+        following.follower = follower;
+        following.followed = followed;
+        following.blueskyHandle = followed.name + ".bsky.social";
+        following.followedAt = LocalDateTime.now();
+        following.syncedAt = following.followedAt;
+        following.persist();
+    }
+}